@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import com.coprtools.constants.InserterConstants;
+import com.coprtools.core.CopyrightToolsEngine;
+
+/**
+ * Builds the notices used by the benchmarks and cleans up after them. The
+ * sources and the trees come from the
+ * {@link com.coprtools.fixtures.TreeGenerator TreeGenerator} of the tests.
+ *
+ * @author Dimcho Nedev
+ */
+final class BenchmarkFixtures {
+
+    // a strong reference, the logger configuration is lost otherwise
+    private static final Logger LOGGER = Logger.getLogger(CopyrightToolsEngine.class.getName());
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Turns off the per file messages of the commands, as the engine does.
+     */
+    static void disableLogging() {
+        LOGGER.setLevel(Level.SEVERE);
+    }
+
+    /**
+     * @param length
+     *            - the approximate length of the notice in characters
+     * @param owner
+     *            - the copyright owner
+     * @return a block comment notice
+     */
+    static String notice(int length, String owner) {
+        StringBuilder notice = new StringBuilder("/*").append(InserterConstants.LINE_SEPARATOR);
+        notice.append(" * Copyright (C) 2016 ").append(owner).append(InserterConstants.LINE_SEPARATOR);
+        while (notice.length() < length) {
+            notice.append(" * Licensed under the Apache License, Version 2.0.")
+                    .append(InserterConstants.LINE_SEPARATOR);
+        }
+
+        return notice.append(" */").toString();
+    }
+
+    /**
+     * Deletes a directory with all of its content.
+     *
+     * @param directory
+     *            - the directory
+     * @throws IOException
+     *             - thrown when failed to delete a file
+     */
+    static void delete(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.coprtools.commands.AbstractCommand;
+import com.coprtools.commands.CommandFactory;
+import com.coprtools.commands.CommandType;
+import com.coprtools.constants.InserterConstants;
+import com.coprtools.exceptions.InvalidCommandException;
+import com.coprtools.fixtures.TreeGenerator;
+import com.coprtools.util.SourceManipulator;
+
+/**
+ * Measures every {@link AbstractCommand command} on a single file. The file
+ * content is restored before every invocation, so the mutating commands
+ * always find the same input.
+ *
+ * @author Dimcho Nedev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CommandBenchmark {
+
+    @Param({ "INSERT_BEFORE", "INSERT_AFTER", "REMOVE", "REPLACE", "CHECK_BEFORE", "CHECK_AFTER" })
+    public CommandType commandType;
+
+    @Param({ "1024", "65536", "1048576", "10485760" })
+    public int fileSize;
+
+    @Param({ "100", "1000" })
+    public int noticeLength;
+
+    private Path directory;
+
+    private Path file;
+
+    private byte[] content;
+
+    private AbstractCommand command;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InvalidCommandException {
+        BenchmarkFixtures.disableLogging();
+        this.directory = Files.createTempDirectory("command-benchmark");
+        this.file = this.directory.resolve("Sample.java");
+
+        String notice = BenchmarkFixtures.notice(this.noticeLength, "Dimcho Nedev");
+        String newNotice = BenchmarkFixtures.notice(this.noticeLength, "Copyright Tools");
+        String source = TreeGenerator.source(this.fileSize).trim();
+
+        switch (this.commandType) {
+        case INSERT_BEFORE:
+        case INSERT_AFTER:
+            break;
+        case CHECK_AFTER:
+            source = source + InserterConstants.LINE_SEPARATOR + notice;
+            break;
+        default:
+            source = notice + InserterConstants.LINE_SEPARATOR + source;
+            break;
+        }
+
+        this.content = source.getBytes(Charset.defaultCharset());
+        this.command = new CommandFactory().create(this.commandType, notice, new String[] { ".java" },
+                new SourceManipulator(), newNotice);
+    }
+
+    @Setup(Level.Invocation)
+    public void restore() throws IOException {
+        Files.write(this.file, this.content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.delete(this.directory);
+    }
+
+    @Benchmark
+    public void execute() {
+        this.command.executeRecursively(this.directory.toFile());
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.coprtools.fixtures.TreeGenerator;
+import com.coprtools.util.ByteSourceManipulator;
+import com.coprtools.util.FileManipulator;
+import com.coprtools.util.SourceManipulator;
+
+/**
+ * Measures the reading and the writing of a single file by the
+ * {@link FileManipulator manipulators}.
+ *
+ * @author Dimcho Nedev
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SourceManipulatorBenchmark {
+
+    @Param({ "1024", "65536", "1048576", "10485760" })
+    public int fileSize;
+
+    @Param({ "false", "true" })
+    public boolean preserve;
+
+    private Path directory;
+
+    private File file;
+
+    private String source;
+
+    private FileManipulator manipulator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        BenchmarkFixtures.disableLogging();
+        this.directory = Files.createTempDirectory("manipulator-benchmark");
+        this.file = this.directory.resolve("Sample.java").toFile();
+        this.source = TreeGenerator.source(this.fileSize).trim();
+        this.manipulator = this.preserve ? new ByteSourceManipulator() : new SourceManipulator();
+        this.manipulator.overrideFile(this.file, this.source);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkFixtures.delete(this.directory);
+    }
+
+    @Benchmark
+    public String readFromFile() throws IOException {
+        return this.manipulator.readFromFile(this.file);
+    }
+
+    @Benchmark
+    public void overrideFile() throws IOException {
+        this.manipulator.overrideFile(this.file, this.source);
+    }
+
+    @Benchmark
+    public void writeParts() throws IOException {
+        this.manipulator.writeParts(this.file, this.source);
+    }
+
+    @Benchmark
+    public void startsWith(Blackhole blackhole) throws IOException {
+        blackhole.consume(this.manipulator.startsWith(this.file, "/*"));
+    }
+}
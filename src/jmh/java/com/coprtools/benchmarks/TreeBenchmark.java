@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.coprtools.commands.AbstractCommand;
+import com.coprtools.commands.CommandFactory;
+import com.coprtools.commands.CommandType;
+import com.coprtools.exceptions.InvalidCommandException;
+import com.coprtools.fixtures.TreeGenerator;
+import com.coprtools.scanner.FileScanner;
+import com.coprtools.scanner.ForkJoinScanner;
+import com.coprtools.scanner.TreeWalkScanner;
+import com.coprtools.util.SourceManipulator;
+
+/**
+ * Measures {@link AbstractCommand#executeRecursively(java.io.File, FileScanner)}
+ * over a tree created by the {@link TreeGenerator}. The tree is generated
+ * again before every iteration, so the commands that change the files always
+ * start from the same tree.
+ *
+ * @author Dimcho Nedev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TreeBenchmark {
+
+    @Param({ "CHECK_BEFORE", "INSERT_BEFORE", "REMOVE" })
+    public CommandType commandType;
+
+    @Param({ "1000", "10000" })
+    public int files;
+
+    @Param({ "1", "4" })
+    public int threads;
+
+    @Param({ "3", "12" })
+    public int depth;
+
+    @Param({ "0.0", "0.5", "1.0" })
+    public double headerRatio;
+
+    private Path root;
+
+    private String notice;
+
+    private AbstractCommand command;
+
+    private FileScanner scanner;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidCommandException {
+        BenchmarkFixtures.disableLogging();
+        this.notice = BenchmarkFixtures.notice(500, "Dimcho Nedev");
+        this.command = new CommandFactory().create(this.commandType, this.notice, new String[] { ".java" },
+                new SourceManipulator(), null);
+        this.scanner = this.threads > 1 ? new ForkJoinScanner(this.threads) : new TreeWalkScanner();
+    }
+
+    @Setup(Level.Iteration)
+    public void generateTree() throws IOException {
+        this.root = Files.createTempDirectory("tree-benchmark");
+        new TreeGenerator(42)
+                .files(this.files)
+                .depth(this.depth)
+                .headerRatio(this.headerRatio)
+                .generate(this.root, this.notice);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteTree() throws IOException {
+        BenchmarkFixtures.delete(this.root);
+    }
+
+    @Benchmark
+    public void executeRecursively() {
+        this.command.executeRecursively(this.root.toFile(), this.scanner);
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.batch;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.coprtools.cli.ApacheCliConsole;
+import com.coprtools.commands.CommandFactory;
+import com.coprtools.commands.ExecutionResult;
+import com.coprtools.constants.ConsoleCommandConstants;
+import com.coprtools.constants.UserMessagesConstants;
+import com.coprtools.core.CopyrightToolsEngine;
+import com.coprtools.exceptions.ArgumentParseException;
+import com.coprtools.util.FileManipulator;
+import com.coprtools.util.SourceManipulator;
+import com.coprtools.writer.Writer;
+
+/**
+ * Runs the jobs of a job file in a single process. Every line of the file is a
+ * separate command with its own arguments, e.g.
+ * <code>insert -r repo1 -n notice.txt -e .java</code>. The arguments with
+ * white spaces are quoted, the empty lines and the lines starting with # are
+ * skipped. The relative paths are resolved against the folder of the job
+ * file.
+ * <p>
+ * The jobs are executed one by one, but the files of every job are processed
+ * on a shared worker pool. The notices and their matchers are loaded once for
+ * all jobs. An aggregated report of the jobs and of their files is written at
+ * the end.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class BatchRunner implements Closeable {
+
+    private static final char COMMENT = '#';
+
+    private final CommandFactory commandFactory = new CommandFactory();
+
+    private final FileManipulator manipulator = new SourceManipulator(this.commandFactory.getNoticeRegistry());
+
+    private final ForkJoinPool workerPool;
+
+    private final Writer writer;
+
+    /**
+     * @param threads
+     *            - the number of the shared worker threads
+     * @param writer
+     *            - the writer of the jobs output and the report
+     */
+    public BatchRunner(int threads, Writer writer) {
+        this.workerPool = new ForkJoinPool(threads);
+        this.writer = writer;
+    }
+
+    /**
+     * Runs all jobs of the job file.
+     *
+     * @param jobFile
+     *            - the job file
+     * @return <code>true</code> if all jobs have succeeded
+     * @throws IOException
+     *             - thrown when failed to read the job file
+     * @throws ArgumentParseException
+     *             - thrown when a line of the job file has an unterminated
+     *             quote
+     */
+    public boolean run(File jobFile) throws IOException, ArgumentParseException {
+        List<Job> jobs;
+        try (Reader reader = Files.newBufferedReader(jobFile.toPath())) {
+            jobs = readJobs(reader);
+        }
+
+        File directory = jobFile.getAbsoluteFile().getParentFile();
+        List<Integer> failed = new ArrayList<>();
+        FileTotals totals = new FileTotals();
+        long start = System.nanoTime();
+        for (Job job : jobs) {
+            CopyrightToolsEngine engine = new CopyrightToolsEngine(new ApacheCliConsole(job.arguments),
+                    this.manipulator, new JobWriter(job.line, this.writer), this.commandFactory);
+            engine.setWorkingDirectory(directory);
+            engine.setWorkerPool(this.workerPool);
+            boolean check = ConsoleCommandConstants.CHECK.equals(job.arguments[0]);
+            engine.addHook((file, result) -> totals.add(result, check));
+            engine.run();
+            if (engine.isFailed()) {
+                failed.add(job.line);
+            }
+        }
+
+        this.writer.writeLine(UserMessagesConstants.BATCH_REPORT_MESSAGE, jobs.size(), jobs.size() - failed.size(),
+                failed.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        this.writer.writeLine(UserMessagesConstants.BATCH_FILES_MESSAGE, totals.processed.sum(),
+                totals.modified.sum(), totals.checked.sum(), totals.withoutNotice.sum(), totals.skipped.sum(),
+                totals.failed.sum());
+        if (!failed.isEmpty()) {
+            this.writer.writeLine(UserMessagesConstants.BATCH_FAILED_JOBS_MESSAGE, failed);
+        }
+
+        return failed.isEmpty();
+    }
+
+    /**
+     * Shuts the worker pool down.
+     */
+    @Override
+    public void close() {
+        this.workerPool.shutdown();
+    }
+
+    /**
+     * Reads the jobs of a job file.
+     *
+     * @param reader
+     *            - the reader of the job file
+     * @return the jobs
+     * @throws IOException
+     *             - thrown when failed to read the jobs
+     * @throws ArgumentParseException
+     *             - thrown when a line has an unterminated quote
+     */
+    private static List<Job> readJobs(Reader reader) throws IOException, ArgumentParseException {
+        List<Job> jobs = new ArrayList<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int number = 0;
+        while ((line = lines.readLine()) != null) {
+            number++;
+            String[] arguments = tokenize(line);
+            if (arguments.length > 0) {
+                jobs.add(new Job(number, arguments));
+            }
+        }
+
+        return jobs;
+    }
+
+    /**
+     * Splits a line of a job file to arguments. The arguments are separated
+     * by white spaces unless they are in single or double quotes. A # outside
+     * of the quotes starts a comment.
+     *
+     * @param line
+     *            - the line
+     * @return the arguments
+     * @throws ArgumentParseException
+     *             - thrown when a quote is not terminated
+     */
+    public static String[] tokenize(String line) throws ArgumentParseException {
+        List<String> arguments = new ArrayList<>();
+        StringBuilder argument = new StringBuilder();
+        boolean started = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else {
+                    argument.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                started = true;
+            } else if (Character.isWhitespace(c)) {
+                if (started) {
+                    arguments.add(argument.toString());
+                    argument.setLength(0);
+                    started = false;
+                }
+            } else if (c == COMMENT && !started) {
+                break;
+            } else {
+                argument.append(c);
+                started = true;
+            }
+        }
+
+        if (quote != 0) {
+            throw new ArgumentParseException("Unterminated quote: " + line);
+        }
+        if (started) {
+            arguments.add(argument.toString());
+        }
+
+        return arguments.toArray(new String[arguments.size()]);
+    }
+
+    /**
+     * A job of the job file.
+     */
+    private static class Job {
+        private final int line;
+
+        private final String[] arguments;
+
+        Job(int line, String[] arguments) {
+            this.line = line;
+            this.arguments = arguments;
+        }
+    }
+
+    /**
+     * The file results of all jobs. The files of a job are processed on many
+     * threads at the same time.
+     */
+    private static class FileTotals {
+        private final LongAdder processed = new LongAdder();
+
+        private final LongAdder modified = new LongAdder();
+
+        private final LongAdder checked = new LongAdder();
+
+        private final LongAdder withoutNotice = new LongAdder();
+
+        private final LongAdder skipped = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        void add(ExecutionResult result, boolean check) {
+            this.processed.increment();
+            if (check && result != ExecutionResult.FAILED) {
+                this.checked.increment();
+            }
+
+            switch (result) {
+            case DONE:
+                if (!check) {
+                    this.modified.increment();
+                }
+                break;
+            case NOTICE_MISSING:
+                this.withoutNotice.increment();
+                break;
+            case ALREADY_INSERTED:
+            case UP_TO_DATE:
+                this.skipped.increment();
+                break;
+            case FAILED:
+                this.failed.increment();
+                break;
+            default:
+                break;
+            }
+        }
+    }
+
+    /**
+     * Prefixes the output lines of a job with its line number.
+     */
+    private static class JobWriter implements Writer {
+        private final String prefix;
+
+        private final Writer writer;
+
+        JobWriter(int line, Writer writer) {
+            this.prefix = "[" + line + "] ";
+            this.writer = writer;
+        }
+
+        @Override
+        public void writeLine(String line) {
+            this.writer.writeLine(this.prefix + line);
+        }
+
+        @Override
+        public void writeLine(String format, Object... args) {
+            this.writeLine(String.format(format, args));
+        }
+    }
+}
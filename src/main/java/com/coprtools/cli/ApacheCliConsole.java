@@ -76,13 +76,13 @@ public class ApacheCliConsole extends AbstractConsole {
                 .desc(UsageConstants.ROOT_OPTION_DESC)
                 .hasArg().build());
 
-        // notice file location
+        // notice file locations
         options.addOption(Option.builder(OptionConstants.NOTICE_SHORT)
                 .longOpt(OptionConstants.NOTICE_LONG)
                 .optionalArg(false)
                 .required()
                 .desc(UsageConstants.NOTICE_OPTION_DESC)
-                .hasArg().build());
+                .hasArgs().build());
 
         // new notice file location
         options.addOption(Option.builder(OptionConstants.NEW_NOTICE_SHORT)
@@ -124,6 +124,93 @@ public class ApacheCliConsole extends AbstractConsole {
                 .optionalArg(true)
                 .desc(UsageConstants.STRING_OPTION_DESC).build());
 
+        // include and exclude glob patterns
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.INCLUDE_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.INCLUDE_OPTION_DESC)
+                .hasArgs().build());
+
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.EXCLUDE_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.EXCLUDE_OPTION_DESC)
+                .hasArgs().build());
+
+        // hard link the unchanged files to the output folder
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.HARD_LINK_LONG)
+                .optionalArg(true)
+                .desc(UsageConstants.HARD_LINK_OPTION_DESC).build());
+
+        // keep the original bytes of the files
+        options.addOption(Option.builder(OptionConstants.PRESERVE_SHORT)
+                .longOpt(OptionConstants.PRESERVE_LONG)
+                .optionalArg(true)
+                .desc(UsageConstants.PRESERVE_OPTION_DESC).build());
+
+        // memory-map the large files
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.MAP_THRESHOLD_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.MAP_THRESHOLD_OPTION_DESC)
+                .hasArg().build());
+
+        // stream the files through a sliding window
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.STREAM_WINDOW_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.STREAM_WINDOW_OPTION_DESC)
+                .hasArg().build());
+
+        // search only the head of the files
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.SCAN_LIMIT_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.SCAN_LIMIT_OPTION_DESC)
+                .hasArg().build());
+
+        // search only the tail of the files
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.SCAN_TAIL_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.SCAN_TAIL_OPTION_DESC)
+                .hasArg().build());
+
+        // number of the worker threads
+        options.addOption(Option.builder(OptionConstants.THREADS_SHORT)
+                .longOpt(OptionConstants.THREADS_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.THREADS_OPTION_DESC)
+                .hasArg().build());
+
+        // process the files on virtual threads
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.VIRTUAL_THREADS_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.VIRTUAL_THREADS_OPTION_DESC)
+                .hasArg().build());
+
+        // skip the files that are not changed since the last run
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.INCREMENTAL_LONG)
+                .optionalArg(true)
+                .desc(UsageConstants.INCREMENTAL_OPTION_DESC).build());
+
+        // print the metrics of the run
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.METRICS_LONG)
+                .optionalArg(true)
+                .desc(UsageConstants.METRICS_OPTION_DESC)
+                .hasArg().build());
+
+        // process only the listed files
+        options.addOption(Option.builder()
+                .longOpt(OptionConstants.PATHS_LONG)
+                .optionalArg(false)
+                .desc(UsageConstants.PATHS_OPTION_DESC)
+                .hasArg().build());
+
         return options;
     }
 
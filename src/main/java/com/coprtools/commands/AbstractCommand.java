@@ -18,12 +18,31 @@ package com.coprtools.commands;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.coprtools.constants.InserterConstants;
 import com.coprtools.core.CopyrightToolsEngine;
 import com.coprtools.exceptions.AlreadyInsertedException;
+import com.coprtools.exceptions.MissingNoticeException;
+import com.coprtools.matching.Match;
+import com.coprtools.matching.NoticeMatcher;
+import com.coprtools.scanner.ExtensionFilter;
+import com.coprtools.scanner.FileScanner;
+import com.coprtools.scanner.ScanFilter;
+import com.coprtools.scanner.ScanListener;
+import com.coprtools.scanner.TreeWalkScanner;
+import com.coprtools.util.ByteSequence;
 import com.coprtools.util.FileManipulator;
+import com.coprtools.util.IoExecutor;
 
 /**
  * An abstract class that represents type for the base command
@@ -36,28 +55,119 @@ public abstract class AbstractCommand {
 
     protected String notice;
 
-    private String[] extensions;
+    private volatile boolean hasError;
 
-    private boolean hasError;
+    private ScanFilter filter;
+
+    private final List<ExecutionHook> hooks = new ArrayList<>();
+
+    private boolean linkUnchangedFiles;
+
+    private int streamWindow;
+
+    private long headLimit;
+
+    private long tailLimit;
+
+    private IoExecutor executor;
 
     protected FileManipulator manipulator;
 
     /**
      * This is the base command functionality that will be overridden from each
      * one command. Represents an atomic file manipulation: insert, remove or
-     * replace a notice.
+     * replace a notice. The source file is read and the result is written to
+     * the target file. Both are the same file unless an output directory is
+     * used.
      *
+     * @param sourceFile
+     *            - the file that will be read
      * @param targetFile
-     *            - the file that will be manipulated
+     *            - the file where the result will be written
+     * @return <code>true</code> if the target file was written, otherwise -
+     *         <code>false</code>
      * @throws Exception
      *             - thrown when the manipulation failed
      */
-    protected abstract void executeOnce(File targetFile) throws Exception;
+    protected abstract boolean executeOnce(File sourceFile, File targetFile) throws Exception;
 
     AbstractCommand(String notice, String[] extensions, FileManipulator manipulator) {
         this.notice = notice;
-        this.extensions = extensions;
         this.manipulator = manipulator;
+        this.filter = new ExtensionFilter(extensions);
+    }
+
+    /**
+     * Adds a filtering hook. The command will be executed only for the files
+     * accepted by all of the filters.
+     *
+     * @param filter
+     *            - the additional filter
+     */
+    public void addFilter(ScanFilter filter) {
+        this.filter = this.filter.and(filter);
+    }
+
+    /**
+     * Adds an execution hook. The hooks are called for every accepted file and
+     * should be added before the execution.
+     *
+     * @param hook
+     *            - the hook
+     */
+    public void addHook(ExecutionHook hook) {
+        this.hooks.add(hook);
+    }
+
+    /**
+     * With an output directory the files that are not changed by the command
+     * will be hard linked instead of copied when the file system allows it.
+     *
+     * @param linkUnchangedFiles
+     *            - whether to hard link the unchanged files
+     */
+    public void setLinkUnchangedFiles(boolean linkUnchangedFiles) {
+        this.linkUnchangedFiles = linkUnchangedFiles;
+    }
+
+    /**
+     * With a positive window size the notices are spliced through a sliding
+     * window of that size instead of reading the whole files, see
+     * {@link StreamingSplicer}. The files are handled as bytes, so the
+     * manipulator should preserve the bytes.
+     *
+     * @param streamWindow
+     *            - the window size in bytes or 0 to read the whole files
+     */
+    public void setStreamWindow(int streamWindow) {
+        this.streamWindow = streamWindow;
+    }
+
+    /**
+     * Limits the search of the notices to the head and the tail of the files.
+     * The files are streamed as with {@link #setStreamWindow(int)}, so only
+     * these regions are read unless a notice is found.
+     *
+     * @param headLimit
+     *            - the number of the first bytes that are searched
+     * @param tailLimit
+     *            - the number of the last bytes that are searched
+     */
+    public void setScanLimits(long headLimit, long tailLimit) {
+        this.headLimit = headLimit;
+        this.tailLimit = tailLimit;
+    }
+
+    /**
+     * Runs the file operations on the given executor instead of the scanning
+     * thread. The scan waits until all operations are completed.
+     *
+     * @param executor
+     *            - the executor or <code>null</code> to run the operations on
+     *            the scanning thread
+     */
+    public void setExecutor(IoExecutor executor) {
+        this.executor = executor;
     }
 
     /**
@@ -68,50 +178,434 @@ public abstract class AbstractCommand {
      *            - the target directory where the command will be executed
      */
     public void executeRecursively(File targetLocation) {
-        File[] files = targetLocation.listFiles();
+        executeRecursively(targetLocation, new TreeWalkScanner());
+    }
 
-        for (File file : files) {
-            if (!file.isDirectory()) {
-                boolean isExt = containsExtension(file, this.extensions);
+    /**
+     * Executes the current command for all files found by the given
+     * {@link FileScanner scanner} in the specified target location directory.
+     *
+     * @param targetLocation
+     *            - the target directory where the command will be executed
+     * @param scanner
+     *            - the scanner that traverses the target directory
+     */
+    public void executeRecursively(File targetLocation, FileScanner scanner) {
+        ScanListener listener = new ScanListener() {
+            @Override
+            public void onFile(Path file, BasicFileAttributes attributes) {
+                File target = file.toFile();
+                dispatch(() -> executeFile(target, target, attributes));
+            }
+
+            @Override
+            public void onError(Path path, IOException e) {
+                reportError(path.toFile(), e);
+            }
+        };
+
+        try {
+            scanner.scan(targetLocation.toPath(), this.filter, listener);
+        } catch (IOException e) {
+            reportError(targetLocation, e);
+        }
+        awaitOperations();
+    }
+
+    /**
+     * Executes the current command for all files in the source directory and
+     * writes the results to the output directory in a single pass. The source
+     * directory stays unchanged. The other files, including the ones in the
+     * excluded directories, are copied (or hard linked) to the output
+     * directory as they are.
+     *
+     * @param sourceLocation
+     *            - the source directory
+     * @param outputLocation
+     *            - the output directory
+     * @param scanner
+     *            - the scanner that traverses the source directory
+     */
+    public void executeRecursively(File sourceLocation, File outputLocation, FileScanner scanner) {
+        Path sourceRoot = sourceLocation.toPath();
+        Path outputRoot = outputLocation.toPath();
+        Path absoluteOutputRoot = outputRoot.toAbsolutePath().normalize();
+        Set<Path> excludedDirectories = ConcurrentHashMap.newKeySet();
+
+        // everything is visited except the output directory itself
+        ScanFilter visitAll = new ScanFilter() {
+            @Override
+            public boolean acceptDirectory(Path directory, BasicFileAttributes attributes) {
+                return !directory.toAbsolutePath().normalize().equals(absoluteOutputRoot);
+            }
+
+            @Override
+            public boolean acceptFile(Path file, BasicFileAttributes attributes) {
+                return true;
+            }
+        };
+
+        ScanListener listener = new ScanListener() {
+            @Override
+            public void onDirectory(Path directory, BasicFileAttributes attributes) {
+                if (!directory.equals(sourceRoot) && (excludedDirectories.contains(directory.getParent())
+                        || !filter.acceptDirectory(directory, attributes))) {
+                    excludedDirectories.add(directory);
+                }
+
+                Path target = outputRoot.resolve(sourceRoot.relativize(directory));
                 try {
-                    if (isExt) {
-                        executeOnce(file);
-                        LOGGER.log(Level.INFO, String.format("%s - DONE", file.getName()));
-                    }
+                    Files.createDirectories(target);
                 } catch (IOException e) {
-                    this.hasError = true;
-                    LOGGER.log(Level.SEVERE, String.format("%s - ERROR - %s", file.getName(), e.getMessage()));
-                } catch (AlreadyInsertedException e) {
-                    this.hasError = true;
-                    LOGGER.log(Level.INFO, String.format("%s - ALREADY INSERTED (nothong to do here) - %s",
-                            file.getName(), e.getMessage()));
-                } catch (Exception e) {
-                    e.printStackTrace();
+                    reportError(target.toFile(), e);
                 }
-            } else {
-                executeRecursively(file);
             }
+
+            @Override
+            public void onFile(Path file, BasicFileAttributes attributes) {
+                File target = outputRoot.resolve(sourceRoot.relativize(file)).toFile();
+                if (!excludedDirectories.contains(file.getParent()) && filter.acceptFile(file, attributes)) {
+                    dispatch(() -> executeFile(file.toFile(), target, attributes));
+                } else {
+                    dispatch(() -> copyFile(file.toFile(), target, linkUnchangedFiles));
+                }
+            }
+
+            @Override
+            public void onError(Path path, IOException e) {
+                reportError(path.toFile(), e);
+            }
+        };
+
+        try {
+            scanner.scan(sourceRoot, visitAll, listener);
+        } catch (IOException e) {
+            reportError(sourceLocation, e);
         }
+        awaitOperations();
     }
 
     /**
-     * Checks whether an array of file extensions contains a specific file
-     * extension
+     * Runs a file operation on the executor, if any, or on the current thread.
+     */
+    private void dispatch(Runnable operation) {
+        if (this.executor != null) {
+            this.executor.execute(operation);
+        } else {
+            operation.run();
+        }
+    }
+
+    private void awaitOperations() {
+        if (this.executor != null) {
+            this.executor.awaitCompletion();
+        }
+    }
+
+    /**
+     * Executes the command for a single file. The method is safe to be called
+     * from many threads.
      *
      * @param file
-     *            - the file which extension will be checked
-     * @param fileExtensions
-     *            - array of file extension
-     * @return
-     */
-    private boolean containsExtension(File file, String[] fileExtensions) {
-        for (String extension : fileExtensions) {
-            if (file.getName().endsWith(extension)) {
-                return true;
+     *            - the file that will be manipulated
+     * @param target
+     *            - the file where the result will be written, the same file
+     *            when the command runs in place
+     * @param attributes
+     *            - the file attributes
+     */
+    private void executeFile(File file, File target, BasicFileAttributes attributes) {
+        for (ExecutionHook hook : this.hooks) {
+            hook.beforeExecute(file);
+        }
+
+        // an up to date file missing in the output directory is written again
+        boolean targetExists = file.equals(target) || target.exists();
+        for (ExecutionHook hook : this.hooks) {
+            if (targetExists && hook.isUpToDate(file, attributes)) {
+                log(Level.INFO, "{0} - UP TO DATE (nothing to do here)", file.getName());
+                complete(file, ExecutionResult.UP_TO_DATE);
+                return;
             }
         }
 
-        return false;
+        ExecutionResult result = ExecutionResult.FAILED;
+        boolean written = false;
+        try {
+            written = executeOnce(file, target);
+            result = ExecutionResult.DONE;
+            log(Level.INFO, "{0} - DONE", file.getName());
+        } catch (IOException e) {
+            reportError(file, e);
+        } catch (AlreadyInsertedException e) {
+            this.hasError = true;
+            result = ExecutionResult.ALREADY_INSERTED;
+            log(Level.INFO, "{0} - ALREADY INSERTED (nothong to do here) - {1}", file.getName(), e.getMessage());
+        } catch (MissingNoticeException e) {
+            result = ExecutionResult.NOTICE_MISSING;
+            log(Level.INFO, "{0} - NOTICE IS MISSING", e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        // the output directory must contain the unchanged files too
+        if (!written && result != ExecutionResult.FAILED && !file.equals(target)) {
+            copyFile(file, target, this.linkUnchangedFiles);
+        }
+
+        complete(file, result);
+    }
+
+    private void copyFile(File source, File target, boolean link) {
+        try {
+            this.manipulator.copyFile(source, target, link);
+        } catch (IOException e) {
+            reportError(target, e);
+        }
+    }
+
+    private void complete(File file, ExecutionResult result) {
+        onResult(file, result);
+        for (ExecutionHook hook : this.hooks) {
+            hook.afterExecute(file, result);
+        }
+    }
+
+    /**
+     * Called after the command is executed (or skipped) for a file. Does
+     * nothing by default.
+     *
+     * @param file
+     *            - the file
+     * @param result
+     *            - the result of the execution
+     */
+    protected void onResult(File file, ExecutionResult result) {
+    }
+
+    private void reportError(File file, IOException e) {
+        this.hasError = true;
+        log(Level.SEVERE, "{0} - ERROR - {1}", file.getName(), e.getMessage());
+    }
+
+    /**
+     * Logs a message for a file. The message is formatted by the log handlers
+     * and only if the level is enabled, so the disabled messages cost only a
+     * level check.
+     *
+     * @param level
+     *            - the level
+     * @param pattern
+     *            - the {@link java.text.MessageFormat} pattern
+     * @param arguments
+     *            - the arguments of the pattern
+     */
+    private static void log(Level level, String pattern, Object... arguments) {
+        if (LOGGER.isLoggable(level)) {
+            LOGGER.logp(level, AbstractCommand.class.getName(), "executeFile", pattern, arguments);
+        }
+    }
+
+    /**
+     * Splices the notices of the source file into the target file, see
+     * {@link #spliceNotices(CharSequence, NoticeMatcher, String)}. With a
+     * stream window or scan limits the file is streamed instead of read at
+     * once. The new content is trimmed unless the manipulator preserves the
+     * bytes.
+     *
+     * @param sourceFile
+     *            - the source file
+     * @param targetFile
+     *            - the target file
+     * @param matcher
+     *            - the notices matcher
+     * @param replacement
+     *            - the replacement of the first found notice, may be empty
+     * @return <code>true</code> if a notice is found and the target is written
+     * @throws IOException
+     *             - thrown when failed to read or write the files
+     */
+    protected boolean spliceNotices(File sourceFile, File targetFile, NoticeMatcher matcher, String replacement)
+            throws IOException {
+        if (this.streamWindow > 0 || this.headLimit > 0 || this.tailLimit > 0) {
+            int window = this.streamWindow > 0 ? this.streamWindow : InserterConstants.DEFAULT_STREAM_WINDOW;
+            StreamingSplicer splicer = new StreamingSplicer(matcher, replacement, window, this.headLimit,
+                    this.tailLimit);
+            try {
+                return splicer.splice(sourceFile, targetFile, this.manipulator);
+            } finally {
+                // the splicer reads the file directly, not through the manipulator
+                for (ExecutionHook hook : this.hooks) {
+                    hook.onRead(sourceFile, splicer.getReadNanos(), splicer.getReadBytes());
+                }
+            }
+        }
+
+        CharSequence[] parts = spliceNotices(this.manipulator.readContent(sourceFile), matcher, replacement);
+        if (parts == null) {
+            return false;
+        }
+        if (!this.manipulator.preservesBytes()) {
+            parts = trim(parts);
+        }
+
+        this.manipulator.writeParts(targetFile, parts);
+        return true;
+    }
+
+    /**
+     * Removes the first occurrence of every notice searched by the matcher in
+     * a single pass. The first found notice is replaced with the replacement.
+     *
+     * @param source
+     *            - the source
+     * @param matcher
+     *            - the notices matcher
+     * @param replacement
+     *            - the replacement of the first found notice, may be empty
+     * @return the parts of the new source or <code>null</code> if no notice is
+     *         found
+     */
+    protected static CharSequence[] spliceNotices(CharSequence source, NoticeMatcher matcher, String replacement) {
+        boolean[] found = new boolean[matcher.getNoticeCount()];
+        int remaining = found.length;
+
+        List<CharSequence> parts = new ArrayList<>();
+        int position = 0;
+        Match match = matcher.find(source, 0);
+        while (match != null) {
+            if (!found[match.getNoticeIndex()]) {
+                parts.add(slice(source, position, match.getStart()));
+                if (remaining == found.length && !replacement.isEmpty()) {
+                    parts.add(replacement);
+                }
+                position = match.getEnd();
+                found[match.getNoticeIndex()] = true;
+                if (--remaining == 0) {
+                    break;
+                }
+            }
+            match = matcher.find(source, match.getEnd());
+        }
+
+        if (parts.isEmpty()) {
+            return null;
+        }
+
+        parts.add(slice(source, position, source.length()));
+        return parts.toArray(new CharSequence[parts.size()]);
+    }
+
+    /**
+     * Trims the parts of a source as if they were concatenated and trimmed
+     * with {@link String#trim()}. The parts are not copied: the trimmed parts
+     * are views of the original ones.
+     *
+     * @param parts
+     *            - the parts of the source
+     * @return the trimmed non-empty parts
+     */
+    protected static CharSequence[] trim(CharSequence... parts) {
+        int first = 0;
+        int start = 0;
+        while (first < parts.length && (start = skipLeading(parts[first])) == parts[first].length()) {
+            first++;
+        }
+
+        int last = parts.length - 1;
+        int end = 0;
+        while (last >= first && (end = skipTrailing(parts[last])) == 0) {
+            last--;
+        }
+
+        if (first > last) {
+            return new CharSequence[0];
+        }
+
+        CharSequence[] trimmed = new CharSequence[last - first + 1];
+        System.arraycopy(parts, first, trimmed, 0, trimmed.length);
+        if (first == last) {
+            trimmed[0] = slice(parts[first], start, end);
+        } else {
+            trimmed[0] = slice(parts[first], start, parts[first].length());
+            trimmed[trimmed.length - 1] = slice(parts[last], 0, end);
+        }
+
+        return trimmed;
+    }
+
+    /**
+     * Creates a view of a part without copying it. A {@link ByteSequence}
+     * slices itself, so it can still be written directly.
+     *
+     * @param part
+     *            - the part
+     * @param start
+     *            - the start index, inclusive
+     * @param end
+     *            - the end index, exclusive
+     * @return the view
+     */
+    private static CharSequence slice(CharSequence part, int start, int end) {
+        if (part instanceof ByteSequence) {
+            return part.subSequence(start, end);
+        }
+
+        return CharBuffer.wrap(part, start, end);
+    }
+
+    /**
+     * @param source
+     *            - the source
+     * @param prefix
+     *            - the prefix
+     * @return <code>true</code> if the source starts with the prefix
+     */
+    protected static boolean startsWith(CharSequence source, String prefix) {
+        return regionMatches(source, 0, prefix);
+    }
+
+    /**
+     * @param source
+     *            - the source
+     * @param suffix
+     *            - the suffix
+     * @return <code>true</code> if the source ends with the suffix
+     */
+    protected static boolean endsWith(CharSequence source, String suffix) {
+        return regionMatches(source, source.length() - suffix.length(), suffix);
+    }
+
+    private static boolean regionMatches(CharSequence source, int offset, String text) {
+        if (offset < 0 || offset + text.length() > source.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            if (source.charAt(offset + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int skipLeading(CharSequence part) {
+        int index = 0;
+        while (index < part.length() && part.charAt(index) <= ' ') {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static int skipTrailing(CharSequence part) {
+        int index = part.length();
+        while (index > 0 && part.charAt(index - 1) <= ' ') {
+            index--;
+        }
+
+        return index;
     }
 
     public boolean isHasError() {
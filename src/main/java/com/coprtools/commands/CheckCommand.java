@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.coprtools.exceptions.MissingNoticeException;
+import com.coprtools.util.FileManipulator;
+
+/**
+ * Checks whether the source files contain a copyright notice before (or after)
+ * the source code. The files are only read, never written.
+ *
+ * @author Dimcho Nedev
+ */
+public class CheckCommand extends AbstractCommand {
+
+    private final boolean bottom;
+
+    private final AtomicLong compliant = new AtomicLong();
+
+    private final AtomicLong nonCompliant = new AtomicLong();
+
+    public CheckCommand(
+            String notice,
+            String[] extensions,
+            FileManipulator manipulator,
+            boolean bottom){
+        super(notice, extensions, manipulator);
+        this.bottom = bottom;
+    }
+
+    @Override
+    protected boolean executeOnce(File sourceFile, File targetFile) throws IOException, MissingNoticeException {
+        if (!hasNotice(sourceFile)) {
+            throw new MissingNoticeException(sourceFile.getPath());
+        }
+
+        return false;
+    }
+
+    @Override
+    protected void onResult(File file, ExecutionResult result) {
+        switch (result) {
+        case DONE:
+        case UP_TO_DATE:
+            this.compliant.incrementAndGet();
+            break;
+        case NOTICE_MISSING:
+            this.nonCompliant.incrementAndGet();
+            break;
+        default:
+            break;
+        }
+    }
+
+    private boolean hasNotice(File targetFile) throws IOException {
+        if (this.bottom) {
+            // fast path: only the last bytes are read if the notice is there
+            return this.manipulator.endsWith(targetFile, this.notice)
+                    || endsWith(this.manipulator.readContent(targetFile), this.notice);
+        }
+
+        // fast path: only the first bytes are read if the notice is there
+        return this.manipulator.startsWith(targetFile, this.notice)
+                || startsWith(this.manipulator.readContent(targetFile), this.notice);
+    }
+
+    /**
+     * @return the number of the files that contain the notice
+     */
+    public long getCompliantCount() {
+        return this.compliant.get();
+    }
+
+    /**
+     * @return the number of the files without the notice
+     */
+    public long getNonCompliantCount() {
+        return this.nonCompliant.get();
+    }
+}
@@ -17,8 +17,8 @@
 package com.coprtools.commands;
 
 import com.coprtools.exceptions.InvalidCommandException;
+import com.coprtools.notice.NoticeRegistry;
 import com.coprtools.util.FileManipulator;
-import com.coprtools.util.SourceManipulator;
 
 /**
  * A class that is responsible to create {@link AbstractCommand command} object
@@ -26,6 +26,20 @@ import com.coprtools.util.SourceManipulator;
  * @author Dimcho Nedev
  */
 public class CommandFactory {
+    private final NoticeRegistry noticeRegistry;
+
+    /**
+     * @param noticeRegistry
+     *            - the registry of the notices and their matchers
+     */
+    public CommandFactory(NoticeRegistry noticeRegistry) {
+        this.noticeRegistry = noticeRegistry;
+    }
+
+    public CommandFactory() {
+        this(new NoticeRegistry());
+    }
+
     /**
      * Creates the desired {@link AbstractCommand object} by given command type and
      * specific set of parameters
@@ -33,7 +47,9 @@ public class CommandFactory {
      * @param commandType
      *            - the type of the command
      * @param args
-     *            - the command arguments
+     *            - the command arguments: the notice (or an array of notices),
+     *            the extensions, the manipulator and the new notice. The
+     *            insert commands use only the first notice.
      * @return the desired command object
      * @throws InvalidCommandException
      *             - thrown when the command type cannot be resolved.
@@ -41,9 +57,10 @@ public class CommandFactory {
     public AbstractCommand create(CommandType commandType, Object... args) throws InvalidCommandException {
         AbstractCommand command = null;
 
-        String notice = (String) args[0];
+        String[] notices = args[0] instanceof String[] ? (String[]) args[0] : new String[] { (String) args[0] };
+        String notice = notices[0];
         String[] extension = (String[]) args[1];
-        FileManipulator manipulator = (SourceManipulator) args[2];
+        FileManipulator manipulator = (FileManipulator) args[2];
 
         switch (commandType) {
         case INSERT_BEFORE:
@@ -53,11 +70,18 @@ public class CommandFactory {
             command = new InsertAfterCommand(notice, extension, manipulator);
             break;
         case REMOVE:
-            command = new RemoveCommand(notice, extension, manipulator);
+            command = new RemoveCommand(notice, extension, manipulator, this.noticeRegistry.getMatcher(notices));
             break;
         case REPLACE:
             String newNotice = (String) args[3];
-            command = new ReplaceCommand(notice, extension, manipulator, newNotice);
+            command = new ReplaceCommand(notice, extension, manipulator, this.noticeRegistry.getMatcher(notices),
+                    newNotice);
+            break;
+        case CHECK_BEFORE:
+            command = new CheckCommand(notice, extension, manipulator, false);
+            break;
+        case CHECK_AFTER:
+            command = new CheckCommand(notice, extension, manipulator, true);
             break;
         default:
             // TODO: Consider to remove this exception
@@ -66,4 +90,11 @@ public class CommandFactory {
 
         return command;
     }
+
+    /**
+     * @return the registry of the notices and their matchers
+     */
+    public NoticeRegistry getNoticeRegistry() {
+        return this.noticeRegistry;
+    }
 }
@@ -23,5 +23,9 @@ public enum CommandType {
 
     REMOVE,
 
-    REPLACE
+    REPLACE,
+
+    CHECK_BEFORE,
+
+    CHECK_AFTER
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.commands;
+
+import java.io.File;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A hook that is called by the {@link AbstractCommand command} around the
+ * execution for every file. The parallel scanners may call the hook from many
+ * threads at the same time.
+ *
+ * @author Dimcho Nedev
+ */
+public interface ExecutionHook {
+    /**
+     * Called before the command is executed for a file. Does nothing by
+     * default.
+     *
+     * @param file
+     *            - the file
+     */
+    default void beforeExecute(File file) {
+    }
+
+    /**
+     * Checks whether the result of the last execution is still valid for the
+     * file. The command skips the up to date files.
+     *
+     * @param file
+     *            - the file
+     * @param attributes
+     *            - the file attributes
+     * @return true if the file can be skipped
+     */
+    default boolean isUpToDate(File file, BasicFileAttributes attributes) {
+        return false;
+    }
+
+    /**
+     * Called when the command reads a file by itself instead of through the
+     * manipulator, e.g. when the file is streamed. Does nothing by default.
+     *
+     * @param file
+     *            - the file
+     * @param nanos
+     *            - the read time in nanoseconds
+     * @param bytes
+     *            - the number of the read bytes
+     */
+    default void onRead(File file, long nanos, long bytes) {
+    }
+
+    /**
+     * Called after the command is executed (or skipped) for a file.
+     *
+     * @param file
+     *            - the file
+     * @param result
+     *            - the result of the execution
+     */
+    void afterExecute(File file, ExecutionResult result);
+}
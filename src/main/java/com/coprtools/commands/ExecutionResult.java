@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.commands;
+
+/**
+ * The result of a command execution for a single file.
+ *
+ * @author Dimcho Nedev
+ */
+public enum ExecutionResult {
+    /** The command was executed successfully. */
+    DONE,
+    /** The notice is already inserted, nothing was changed. */
+    ALREADY_INSERTED,
+    /** The checked file does not contain the notice. */
+    NOTICE_MISSING,
+    /** The file was skipped because it is not changed since the last run. */
+    UP_TO_DATE,
+    /** The command failed. */
+    FAILED
+}
@@ -19,15 +19,19 @@ package com.coprtools.commands;
 import java.io.File;
 import java.io.IOException;
 
+import com.coprtools.exceptions.AlreadyInsertedException;
 import com.coprtools.util.FileManipulator;
 
 /**
- * Inserts a copyright notice after the source code (file content).
+ * Inserts a copyright notice after the source code (file content). The files
+ * that already end with the notice are skipped.
  *
  * @author Dimcho Nedev
  */
 public class InsertAfterCommand extends AbstractCommand {
 
+    private static final String ALREADY_INSERTED_MESSAGE = "The notice you have tried to insert is already inserted.";
+
     public InsertAfterCommand(
             String notice,
             String[] extensions,
@@ -36,7 +40,18 @@ public class InsertAfterCommand extends AbstractCommand {
     }
 
     @Override
-    protected void executeOnce(File targetFile) throws IOException  {
+    protected boolean executeOnce(File sourceFile, File targetFile) throws IOException, AlreadyInsertedException {
+        // only the last bytes are read, so the re-runs don't read the files
+        if (this.manipulator.endsWith(sourceFile, this.notice)) {
+            throw new AlreadyInsertedException(ALREADY_INSERTED_MESSAGE);
+        }
+
+        if (!sourceFile.equals(targetFile)) {
+            // the notice is appended to a copy, never to a link
+            this.manipulator.copyFile(sourceFile, targetFile, false);
+        }
+
         this.manipulator.writeToFile(targetFile, this.notice);
+        return true;
     }
 }
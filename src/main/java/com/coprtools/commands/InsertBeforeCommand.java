@@ -30,6 +30,8 @@ import com.coprtools.util.FileManipulator;
  */
 public class InsertBeforeCommand extends AbstractCommand {
 
+    private static final String ALREADY_INSERTED_MESSAGE = "The notice you have tried to insert is already inserted.";
+
     public InsertBeforeCommand(
             String notice,
             String[] extensions,
@@ -38,14 +40,19 @@ public class InsertBeforeCommand extends AbstractCommand {
     }
 
     @Override
-    protected void executeOnce(File targetFile) throws IOException, AlreadyInsertedException {
-        String source = this.manipulator.readFromFile(targetFile);
-        if (source.startsWith(this.notice)) {
-            throw new AlreadyInsertedException("The notice you have tried to insert is already inserted.");
+    protected boolean executeOnce(File sourceFile, File targetFile) throws IOException, AlreadyInsertedException {
+        // fast path: only the first bytes are read if the notice is there
+        if (this.manipulator.startsWith(sourceFile, this.notice)) {
+            throw new AlreadyInsertedException(ALREADY_INSERTED_MESSAGE);
+        }
+
+        // the notice may still be there with other line separators
+        CharSequence source = this.manipulator.readContent(sourceFile);
+        if (startsWith(source, this.notice)) {
+            throw new AlreadyInsertedException(ALREADY_INSERTED_MESSAGE);
         }
-        String begin = this.notice + InserterConstants.LINE_SEPARATOR;
-        String newSource = begin + source;
 
-        this.manipulator.overrideFile(targetFile, newSource);
+        this.manipulator.writeParts(targetFile, this.notice, InserterConstants.LINE_SEPARATOR, source);
+        return true;
     }
 }
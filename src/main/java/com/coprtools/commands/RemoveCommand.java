@@ -20,29 +20,30 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import com.coprtools.constants.InserterConstants;
+import com.coprtools.matching.NoticeMatcher;
 import com.coprtools.util.FileManipulator;
 
 /**
- * Removes copyright notice from source file.
+ * Removes copyright notice from source file. When the matcher searches for
+ * several notices, the first occurrence of each one is removed.
  *
  * @author Dimcho Nedev
  */
 public class RemoveCommand extends AbstractCommand {
+    private NoticeMatcher matcher;
 
     public RemoveCommand(
             String notice,
             String[] extensions,
-            FileManipulator manipulator){
+            FileManipulator manipulator,
+            NoticeMatcher matcher){
         super(notice, extensions, manipulator);
+        this.matcher = matcher;
     }
 
     @Override
-    protected void executeOnce(File targetFile) throws FileNotFoundException, IOException {
-        String source = this.manipulator.readFromFile(targetFile);
-
-        if (source.contains(notice)) {
-            String newSource = source.replaceFirst(this.notice, "").trim();
-            this.manipulator.overrideFile(targetFile, newSource);
-        }
+    protected boolean executeOnce(File sourceFile, File targetFile) throws FileNotFoundException, IOException {
+        return spliceNotices(sourceFile, targetFile, this.matcher, InserterConstants.EMPTY_STRING);
     }
 }
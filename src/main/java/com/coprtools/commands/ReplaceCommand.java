@@ -20,32 +20,35 @@ import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 
+import com.coprtools.matching.NoticeMatcher;
 import com.coprtools.util.FileManipulator;
 
 /**
- * Replaces a copyright notice with another copyright notice.
+ * Replaces a copyright notice with another copyright notice. When the matcher
+ * searches for several notices, the first found notice is replaced and the
+ * first occurrence of each other one is removed.
  *
  * @author Dimcho Nedev
  */
 public class ReplaceCommand extends AbstractCommand {
     private String newNotice;
 
+    private NoticeMatcher matcher;
+
     public ReplaceCommand(
             String notice,
             String[] extensions,
             FileManipulator manipulator,
+            NoticeMatcher matcher,
             String newNotice){
         super(notice, extensions, manipulator);
+            this.matcher = matcher;
             this.newNotice = newNotice;
     }
 
     @Override
-    protected void executeOnce(File targetFile) throws FileNotFoundException, IOException {
-        String source = this.manipulator.readFromFile(targetFile);
-        if (source.contains(notice)) {
-            String newSource = source.replaceFirst(this.notice, this.newNotice).trim();
-            this.manipulator.overrideFile(targetFile, newSource);
-        }
+    protected boolean executeOnce(File sourceFile, File targetFile) throws FileNotFoundException, IOException {
+        return spliceNotices(sourceFile, targetFile, this.matcher, this.newNotice);
     }
 
 }
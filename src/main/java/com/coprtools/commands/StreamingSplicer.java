@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.coprtools.matching.Match;
+import com.coprtools.matching.NoticeMatcher;
+import com.coprtools.util.ByteSequence;
+import com.coprtools.util.FileManipulator;
+
+/**
+ * Splices the notices of a file in bounded memory. The file is searched
+ * through a fixed-size window which slides with an overlap of the longest
+ * notice, so the notices across the window boundaries are found too. The
+ * kept regions of the file are then transferred to the new file with
+ * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)},
+ * so the memory usage depends only on the window size.
+ * <p>
+ * The search may be limited to the head and the tail of the file, where the
+ * notices are usually found. Then only these regions are read unless a
+ * notice is found.
+ * </p>
+ * <p>
+ * The result is the same as of
+ * {@link AbstractCommand#spliceNotices(CharSequence, NoticeMatcher, String)}
+ * over the bytes of the file read as ISO-8859-1. The new content is trimmed
+ * only when the manipulator doesn't preserve the bytes.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+final class StreamingSplicer {
+
+    private static final int TRIM_BUFFER_SIZE = 256;
+
+    private final NoticeMatcher matcher;
+
+    private final ByteBuffer replacement;
+
+    private final int window;
+
+    private final long headLimit;
+
+    private final long tailLimit;
+
+    private long readNanos;
+
+    private long readBytes;
+
+    /**
+     * @param matcher
+     *            - the notices matcher
+     * @param replacement
+     *            - the replacement of the first found notice, may be empty,
+     *            with one character for every byte as the files are read
+     * @param window
+     *            - the window size, at least twice the longest notice
+     * @param headLimit
+     *            - the number of the first bytes that are searched
+     * @param tailLimit
+     *            - the number of the last bytes that are searched, if both
+     *            limits are 0 the whole file is searched
+     */
+    StreamingSplicer(NoticeMatcher matcher, String replacement, int window, long headLimit, long tailLimit) {
+        this.matcher = matcher;
+        this.replacement = StandardCharsets.ISO_8859_1.encode(replacement);
+        this.window = Math.max(window, 2 * Math.max(matcher.getMaxLength(), 1));
+        this.headLimit = headLimit;
+        this.tailLimit = tailLimit;
+    }
+
+    /**
+     * Splices the notices of the source file into the target file.
+     *
+     * @param sourceFile
+     *            - the source file
+     * @param targetFile
+     *            - the target file, may be the source file
+     * @param manipulator
+     *            - the manipulator which overrides the target file
+     * @return <code>false</code> if no notice is found and nothing is written
+     * @throws IOException
+     *             - thrown when failed to read or write the files
+     */
+    boolean splice(File sourceFile, File targetFile, FileManipulator manipulator) throws IOException {
+        try (FileChannel source = FileChannel.open(sourceFile.toPath(), StandardOpenOption.READ)) {
+            List<Region> regions = this.findRegions(source);
+            if (regions == null) {
+                return false;
+            }
+
+            List<Region> kept = manipulator.preservesBytes() ? regions : trim(source, regions);
+            manipulator.writeContent(targetFile, target -> {
+                for (Region region : kept) {
+                    region.writeTo(source, target);
+                }
+            });
+            return true;
+        }
+    }
+
+    /**
+     * Finds the regions of the new content: the regions of the source between
+     * the first occurrences of the notices and the replacement after the first
+     * region.
+     *
+     * @param source
+     *            - the source channel
+     * @return the regions or <code>null</code> if no notice is found
+     * @throws IOException
+     *             - thrown when failed to read the source
+     */
+    private List<Region> findRegions(FileChannel source) throws IOException {
+        boolean[] found = new boolean[this.matcher.getNoticeCount()];
+        int remaining = found.length;
+        int overlap = Math.max(this.matcher.getMaxLength() - 1, 0);
+
+        List<Region> regions = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(this.window);
+        long size = source.size();
+        long kept = 0;
+        long from = 0;
+        long[] ranges = this.searchRanges(size);
+        for (int i = 0; i < ranges.length && remaining > 0; i += 2) {
+            // the notices are searched within each range, never across them
+            long position = ranges[i];
+            long read = position;
+            boolean end = false;
+            buffer.clear();
+            while (remaining > 0 && !end) {
+                while (buffer.hasRemaining() && !end) {
+                    int room = (int) Math.min(buffer.remaining(), ranges[i + 1] - read);
+                    buffer.limit(buffer.position() + room);
+                    int count = room == 0 ? -1 : this.read(source, buffer, read);
+                    buffer.limit(buffer.capacity());
+                    end = count < 0 || (read += count) >= ranges[i + 1];
+                }
+                buffer.flip();
+
+                // a match is accepted only when all longer candidates at the
+                // same start fit in the window, the others are searched in the
+                // next one
+                ByteSequence text = new ByteSequence(buffer);
+                int limit = end ? text.length() : text.length() - overlap;
+                Match match = this.matcher.find(text, (int) (Math.max(from - position, 0)));
+                while (match != null && match.getStart() < limit) {
+                    if (!found[match.getNoticeIndex()]) {
+                        regions.add(new Region(kept, position + match.getStart()));
+                        if (remaining == found.length && this.replacement.hasRemaining()) {
+                            regions.add(new Region(this.replacement));
+                        }
+                        kept = position + match.getEnd();
+                        found[match.getNoticeIndex()] = true;
+                        if (--remaining == 0) {
+                            break;
+                        }
+                    }
+                    from = position + match.getEnd();
+                    match = this.matcher.find(text, match.getEnd());
+                }
+
+                from = Math.max(from, position + limit);
+                position += limit;
+                buffer.position(limit);
+                buffer.compact();
+            }
+        }
+
+        if (regions.isEmpty()) {
+            return null;
+        }
+
+        regions.add(new Region(kept, size));
+        return regions;
+    }
+
+    /**
+     * Reads from the source and accounts the read time and bytes.
+     */
+    private int read(FileChannel source, ByteBuffer buffer, long position) throws IOException {
+        long start = System.nanoTime();
+        int count = source.read(buffer, position);
+        this.readNanos += System.nanoTime() - start;
+        this.readBytes += Math.max(count, 0);
+        return count;
+    }
+
+    /**
+     * @return the time spent in reading the source in nanoseconds, without
+     *         the transfers of the kept regions
+     */
+    long getReadNanos() {
+        return this.readNanos;
+    }
+
+    /**
+     * @return the number of the bytes read from the source, without the
+     *         transfers of the kept regions
+     */
+    long getReadBytes() {
+        return this.readBytes;
+    }
+
+    /**
+     * @param size
+     *            - the file size
+     * @return the start and the end of each searched range of the file
+     */
+    private long[] searchRanges(long size) {
+        if (this.headLimit <= 0 && this.tailLimit <= 0) {
+            return new long[] { 0, size };
+        }
+
+        long headEnd = Math.min(Math.max(this.headLimit, 0), size);
+        long tailStart = this.tailLimit > 0 ? Math.max(size - this.tailLimit, headEnd) : size;
+        if (tailStart == headEnd) {
+            // the regions meet, so they are searched as one
+            return new long[] { 0, size };
+        }
+        if (tailStart == size) {
+            return new long[] { 0, headEnd };
+        }
+
+        return new long[] { 0, headEnd, tailStart, size };
+    }
+
+    /**
+     * Trims the regions as if they were concatenated and trimmed with
+     * {@link String#trim()}. Only the white spaces at the both ends are read.
+     *
+     * @param source
+     *            - the source channel
+     * @param regions
+     *            - the regions
+     * @return the trimmed non-empty regions
+     * @throws IOException
+     *             - thrown when failed to read the source
+     */
+    private List<Region> trim(FileChannel source, List<Region> regions) throws IOException {
+        int first = 0;
+        long start = 0;
+        while (first < regions.size() && (start = regions.get(first).skipLeading(source)) == regions.get(first).end) {
+            first++;
+        }
+
+        int last = regions.size() - 1;
+        long end = 0;
+        while (last >= first && (end = regions.get(last).skipTrailing(source)) == regions.get(last).start) {
+            last--;
+        }
+
+        List<Region> trimmed = new ArrayList<>();
+        for (int i = first; i <= last; i++) {
+            Region region = regions.get(i);
+            trimmed.add(region.slice(i == first ? start : region.start, i == last ? end : region.end));
+        }
+
+        return trimmed;
+    }
+
+    /**
+     * A region of the source file or a text.
+     */
+    private final class Region {
+        private final long start;
+
+        private final long end;
+
+        private final ByteBuffer text;
+
+        Region(long start, long end) {
+            this(start, end, null);
+        }
+
+        Region(ByteBuffer text) {
+            this(0, text.remaining(), text);
+        }
+
+        private Region(long start, long end, ByteBuffer text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+
+        Region slice(long newStart, long newEnd) {
+            if (this.text == null) {
+                return new Region(newStart, newEnd);
+            }
+
+            ByteBuffer bytes = this.text.duplicate();
+            bytes.limit((int) newEnd).position((int) newStart);
+            return new Region(newStart, newEnd, bytes);
+        }
+
+        long skipLeading(FileChannel source) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(TRIM_BUFFER_SIZE);
+            long index = this.start;
+            while (index < this.end) {
+                buffer.clear();
+                int length = this.read(source, buffer, index, this.end - index);
+                for (int i = 0; i < length; i++, index++) {
+                    if ((buffer.get(i) & 0xFF) > ' ') {
+                        return index;
+                    }
+                }
+            }
+
+            return index;
+        }
+
+        long skipTrailing(FileChannel source) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate(TRIM_BUFFER_SIZE);
+            long index = this.end;
+            while (index > this.start) {
+                buffer.clear();
+                long position = Math.max(index - TRIM_BUFFER_SIZE, this.start);
+                int length = this.read(source, buffer, position, index - position);
+                for (int i = length - 1; i >= 0; i--, index--) {
+                    if ((buffer.get(i) & 0xFF) > ' ') {
+                        return index;
+                    }
+                }
+            }
+
+            return index;
+        }
+
+        /**
+         * Reads the region bytes from the position, at most the buffer size.
+         */
+        private int read(FileChannel source, ByteBuffer buffer, long position, long count) throws IOException {
+            int length = (int) Math.min(buffer.remaining(), count);
+            if (this.text != null) {
+                for (int i = 0; i < length; i++) {
+                    buffer.put(i, this.text.get((int) position + i));
+                }
+                return length;
+            }
+
+            buffer.limit(length);
+            while (buffer.hasRemaining()) {
+                if (StreamingSplicer.this.read(source, buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of file");
+                }
+            }
+            return length;
+        }
+
+        void writeTo(FileChannel source, FileChannel target) throws IOException {
+            if (this.text != null) {
+                ByteBuffer bytes = this.text.duplicate();
+                while (bytes.hasRemaining()) {
+                    target.write(bytes);
+                }
+                return;
+            }
+
+            long position = this.start;
+            while (position < this.end) {
+                long transferred = source.transferTo(position, this.end - position, target);
+                if (transferred == 0 && position >= source.size()) {
+                    throw new IOException("Unexpected end of file");
+                }
+                position += transferred;
+            }
+        }
+    }
+}
@@ -22,4 +22,14 @@ public class ConsoleCommandConstants {
     public static final String REMOVE = "remove";
 
     public static final String REPLACE = "replace";
+
+    public static final String CHECK = "check";
+
+    public static final String DAEMON = "daemon";
+
+    public static final String DAEMON_STOP = "stop";
+
+    public static final String BATCH = "batch";
+
+    public static final String BATCH_THREADS = "--threads";
 }
@@ -22,4 +22,12 @@ public class InserterConstants {
     public static final String EMPTY_STRING = "";
 
     public static final String LOG_FILENAME = "CopyrightInserter.log";
+
+    public static final String MANIFEST_FILENAME = "CopyrightInserter.manifest";
+
+    public static final String DAEMON_STATE_FILENAME = ".copyright-tools-daemon";
+
+    public static final int DEFAULT_STREAM_WINDOW = 64 * 1024;
+
+    public static final int MAX_PLATFORM_IO_THREADS = 256;
 }
@@ -68,4 +68,46 @@ public class OptionConstants {
     public static final String OUTPUT_SHORT = "o";
 
     public static final String OUTPUT_LONG = "output";
+
+    public static final String HARD_LINK_LONG = "hard-link";
+
+    // Include and exclude options
+    public static final String INCLUDE_LONG = "include";
+
+    public static final String EXCLUDE_LONG = "exclude";
+
+    // Preserve option
+    public static final String PRESERVE_SHORT = "p";
+
+    public static final String PRESERVE_LONG = "preserve";
+
+    // Map threshold option
+    public static final String MAP_THRESHOLD_LONG = "map-threshold";
+
+    // Stream window option
+    public static final String STREAM_WINDOW_LONG = "stream-window";
+
+    // Scan limit options
+    public static final String SCAN_LIMIT_LONG = "scan-limit";
+
+    public static final String SCAN_TAIL_LONG = "scan-tail";
+
+    // Threads option
+    public static final String THREADS_SHORT = "t";
+
+    public static final String THREADS_LONG = "threads";
+
+    // Virtual threads option
+    public static final String VIRTUAL_THREADS_LONG = "virtual-threads";
+
+    // Incremental option
+    public static final String INCREMENTAL_LONG = "incremental";
+
+    // Metrics option
+    public static final String METRICS_LONG = "metrics";
+
+    // Paths option
+    public static final String PATHS_LONG = "paths";
+
+    public static final String STANDARD_INPUT = "-";
 }
@@ -33,7 +33,8 @@ public class UsageConstants {
 
 	public static final String INFO_DESC = "Enables job info console logging";
 
-	public static final String NOTICE_OPTION_DESC = "Path to the license notice text file";
+	public static final String NOTICE_OPTION_DESC = "Path to the license notice text file. "
+	        + "The remove and replace commands accept a list of notices and handle all of them at once";
 
 	public static final String TOP_OPTION_DESC = "Insert on top";
 
@@ -52,6 +53,47 @@ public class UsageConstants {
 
 	public static final String NEW_NOTICE_OPTION_DESC = "Path to the new license notice text file";
 
+	public static final String INCLUDE_OPTION_DESC = "Glob patterns (relative to the root folder) of the files "
+	        + "that will be processed. Example: src/main/** **/*Test.java";
+
+	public static final String EXCLUDE_OPTION_DESC = "Glob patterns (relative to the root folder) of the files "
+	        + "and folders that will be skipped. Example: **/generated vendor";
+
+	public static final String HARD_LINK_OPTION_DESC = "With an output folder the files that are not changed "
+	        + "are hard linked instead of copied, when the file system allows it.";
+
+	public static final String PRESERVE_OPTION_DESC = "Keeps the original bytes of the files: "
+	        + "line separators, trailing white spaces and encoding.";
+
+	public static final String MAP_THRESHOLD_OPTION_DESC = "Memory-maps the files with the given size or above "
+	        + "(e.g. 64m) instead of reading them to the memory. Implies the preserve option.";
+
+	public static final String STREAM_WINDOW_OPTION_DESC = "Removes and replaces the notices through a sliding "
+	        + "window of the given size (e.g. 64k) instead of reading the whole files.";
+
+	public static final String SCAN_LIMIT_OPTION_DESC = "Removes and replaces only the notices within the given "
+	        + "number of the first bytes (e.g. 8k) of the files.";
+
+	public static final String SCAN_TAIL_OPTION_DESC = "Removes and replaces only the notices within the given "
+	        + "number of the last bytes (e.g. 8k) of the files.";
+
+	public static final String THREADS_OPTION_DESC = "Number of worker threads that process the files in parallel. "
+	        + "Default: 1";
+
+	public static final String VIRTUAL_THREADS_OPTION_DESC = "Runs every file operation on its own virtual thread "
+	        + "(Java 21+, otherwise on a pool of platform threads) with at most the given number of open files, "
+	        + "e.g. for network file systems.";
+
+	public static final String INCREMENTAL_OPTION_DESC = "Skips the files that are not changed since the last run "
+	        + "with the same notices. The state is kept in a manifest file in the root folder.";
+
+	public static final String METRICS_OPTION_DESC = "Prints the counters and the latencies of the run. "
+	        + "Optionally exports them to the given JSON file.";
+
+	public static final String PATHS_OPTION_DESC = "A file with the paths (relative to the root folder) of the files "
+	        + "that will be processed, one per line, e.g. the output of 'git diff --name-only'. "
+	        + "Use - to read the paths from the standard input.";
+
 	public static final String USAGE = "[-r] [<root folder path>] [-n] [<notice path>] [-e] [.<ext1> .<ext2>...]";
 
 	public static final String HEADER = "Copyright inserter options";
@@ -28,4 +28,28 @@ public class UserMessagesConstants {
 
     public static final String FAILD_OPERTION_MESSAGE = "There are some failed insertions. "
             + "Run with --info option to get log conole output and log file generation.\n" + "Path: \"%s\"";
+
+    public static final String CHECK_REPORT_MESSAGE = "Checked files: %d. With notice: %d. Without notice: %d.";
+
+    public static final String DAEMON_STARTED_MESSAGE = "The daemon is listening on port %d.";
+
+    public static final String DAEMON_RUNNING_MESSAGE = "The daemon is already running.";
+
+    public static final String BATCH_REPORT_MESSAGE = "Batch jobs: %d. Succeeded: %d. Failed: %d. Time: %d ms.";
+
+    public static final String BATCH_FILES_MESSAGE = "Files - processed: %d, modified: %d, checked: %d, "
+            + "without notice: %d, skipped: %d, failed: %d.";
+
+    public static final String BATCH_FAILED_JOBS_MESSAGE = "Failed jobs (job file lines): %s";
+
+    public static final String BATCH_USAGE_MESSAGE = "Usage: batch <job file> [--threads <count>]";
+
+    public static final String METRICS_FILES_MESSAGE = "Files - scanned: %d, matched: %d, modified: %d, "
+            + "skipped: %d, failed: %d.";
+
+    public static final String METRICS_THROUGHPUT_MESSAGE = "Bytes - read: %d, written: %d. Time: %d ms "
+            + "(%.1f files/s).";
+
+    public static final String METRICS_LATENCY_MESSAGE = "Latency %-5s - count: %d, p50: %.3f ms, p99: %.3f ms, "
+            + "total: %.1f ms.";
 }
@@ -19,6 +19,16 @@ package com.coprtools.core;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,15 +38,31 @@ import org.apache.commons.cli.MissingArgumentException;
 
 import com.coprtools.cli.AbstractConsole;
 import com.coprtools.commands.AbstractCommand;
+import com.coprtools.commands.CheckCommand;
 import com.coprtools.commands.CommandFactory;
 import com.coprtools.commands.CommandType;
+import com.coprtools.commands.ExecutionHook;
 import com.coprtools.constants.ConsoleCommandConstants;
 import com.coprtools.constants.InserterConstants;
 import com.coprtools.constants.OptionConstants;
 import com.coprtools.constants.UserMessagesConstants;
 import com.coprtools.exceptions.ArgumentParseException;
 import com.coprtools.exceptions.InvalidCommandException;
+import com.coprtools.logging.AsyncLogHandler;
+import com.coprtools.manifest.FileManifest;
+import com.coprtools.metrics.InstrumentedManipulator;
+import com.coprtools.metrics.InstrumentedScanner;
+import com.coprtools.metrics.Metrics;
+import com.coprtools.notice.NoticeRegistry;
+import com.coprtools.scanner.FileScanner;
+import com.coprtools.scanner.ForkJoinScanner;
+import com.coprtools.scanner.GlobFilter;
+import com.coprtools.scanner.PathListScanner;
+import com.coprtools.scanner.TreeWalkScanner;
+import com.coprtools.util.ByteSourceManipulator;
 import com.coprtools.util.FileManipulator;
+import com.coprtools.util.IoExecutor;
+import com.coprtools.util.MappedSourceManipulator;
 import com.coprtools.writer.Writer;
 
 /**
@@ -47,7 +73,7 @@ import com.coprtools.writer.Writer;
 public class CopyrightToolsEngine implements Runnable {
     private static final Logger LOGGER = Logger.getLogger(CopyrightToolsEngine.class.getName());
 
-    private FileHandler fileHandler;
+    private AsyncLogHandler logHandler;
 
     private AbstractConsole cli;
 
@@ -57,6 +83,18 @@ public class CopyrightToolsEngine implements Runnable {
 
     private CommandFactory commandFactory;
 
+    private int exitCode;
+
+    private File workingDirectory;
+
+    private InputStream input = System.in;
+
+    private ForkJoinPool workerPool;
+
+    private final List<ExecutionHook> hooks = new ArrayList<>();
+
+    private boolean failed;
+
     /**
      * Uses a dependency injection through the constructor.
      *
@@ -88,35 +126,46 @@ public class CopyrightToolsEngine implements Runnable {
     @Override
     public void run() {
         LOGGER.setLevel(Level.SEVERE);
+        this.exitCode = 0;
+        this.failed = true;
         try {
             this.cli.parse();
 
             if (cli.hasOption(OptionConstants.HELP_SHORT)) {
                 cli.showUsage();
+                this.failed = false;
             } else if (cli.getArguments().length == 0) {
                 throw new MissingArgumentException("Missing command!");
             } else {
                 String textConsoleCommand = cli.getArguments()[0];
+                // the check command never opens a file for writing
+                if (ConsoleCommandConstants.CHECK.equals(textConsoleCommand)
+                        && (cli.hasOption(OptionConstants.OUTPUT_SHORT)
+                                || cli.hasOption(OptionConstants.HARD_LINK_LONG))) {
+                    throw new ArgumentParseException("The check command doesn't support an output folder.");
+                }
+                NoticeRegistry noticeRegistry = this.commandFactory.getNoticeRegistry();
+                FileManipulator manipulator = resolveManipulator();
 
                 String rootFolderPath = cli.getOptionValue(OptionConstants.ROOT_SHORT);
-                String noticePath = cli.getOptionValue(OptionConstants.NOTICE_SHORT);
+                String[] noticePaths = cli.getOptionValues(OptionConstants.NOTICE_SHORT);
                 String[] extensions = cli.getOptionValues(OptionConstants.EXTENSION_SHORT);
                 String newNotice = null;
 
                 if (cli.hasOption(OptionConstants.NEW_NOTICE_SHORT) && !cli.hasOption(OptionConstants.STRING_SHORT)) {
                     String newNoticePath = cli.getOptionValue(OptionConstants.NEW_NOTICE_SHORT);
-                    File newNoticeFile = new File(newNoticePath);
-                    newNotice = this.manipulator.readFromFile(newNoticeFile);
+                    File newNoticeFile = resolveFile(newNoticePath);
+                    newNotice = noticeRegistry.load(newNoticeFile, manipulator).getText();
                 }
 
-                File rootDir = new File(rootFolderPath);
-                File destinationFolder = null;
+                File sourceDir = resolveFile(rootFolderPath);
+                File rootDir = sourceDir;
 
+                // The output directory is written while the source is scanned
                 if (cli.hasOption(OptionConstants.OUTPUT_SHORT)) {
                     String destinationPath = cli.getOptionValue(OptionConstants.OUTPUT_SHORT);
-                    destinationFolder = new File(destinationPath);
-                    this.manipulator.copyFolder(rootDir, destinationFolder);
-                    rootDir = destinationFolder;
+                    rootDir = resolveFile(destinationPath);
+                    Files.createDirectories(rootDir.toPath());
                 }
 
                 // Enables logging and creates a log file in the root path
@@ -124,39 +173,130 @@ public class CopyrightToolsEngine implements Runnable {
                     this.enableLogging(rootDir.getAbsolutePath());
                 }
 
-                String notice = null;
+                String[] notices = new String[noticePaths.length];
                 if (cli.hasOption(OptionConstants.STRING_SHORT)) {
-                    notice = cli.getOptionValue(OptionConstants.NOTICE_SHORT);
+                    // the strings are converted as the files are read, e.g. to bytes in preserve mode
+                    for (int i = 0; i < noticePaths.length; i++) {
+                        notices[i] = manipulator.toContentText(noticePaths[i]);
+                    }
                     newNotice = cli.getOptionValue(OptionConstants.NEW_NOTICE_SHORT);
+                    if (newNotice != null) {
+                        newNotice = manipulator.toContentText(newNotice);
+                    }
                 } else {
-                    File noticeFile = new File(noticePath);
-                    notice = this.manipulator.readFromFile(noticeFile);
-                    if (cli.hasOption(OptionConstants.BLANK_SHORT)) {
-                        notice = insertBlankSpace(notice);
+                    for (int i = 0; i < noticePaths.length; i++) {
+                        File noticeFile = resolveFile(noticePaths[i]);
+                        notices[i] = noticeRegistry.load(noticeFile, manipulator).getText();
+                        if (cli.hasOption(OptionConstants.BLANK_SHORT)) {
+                            notices[i] = insertBlankSpace(notices[i]);
+                        }
                     }
                 }
 
+                // the registered notices are encoded once, not for every file
+                for (int i = 0; i < notices.length; i++) {
+                    notices[i] = noticeRegistry.register(notices[i]).getText();
+                }
+                if (newNotice != null) {
+                    newNotice = noticeRegistry.register(newNotice).getText();
+                }
+
                 CommandType commandType = resolveCommandType(textConsoleCommand);
 
+                Metrics metrics = null;
+                if (cli.hasOption(OptionConstants.METRICS_LONG)) {
+                    metrics = new Metrics();
+                    manipulator = new InstrumentedManipulator(manipulator, metrics);
+                }
+
                 AbstractCommand command = commandFactory.create(
                         commandType,
-                        notice,
+                        notices,
                         extensions,
-                        this.manipulator,
+                        manipulator,
                         newNotice);
 
-                command.executeRecursively(rootDir);
+                if (cli.hasOption(OptionConstants.INCLUDE_LONG) || cli.hasOption(OptionConstants.EXCLUDE_LONG)) {
+                    command.addFilter(new GlobFilter(
+                            sourceDir.toPath(),
+                            cli.getOptionValues(OptionConstants.INCLUDE_LONG),
+                            cli.getOptionValues(OptionConstants.EXCLUDE_LONG)));
+                }
+
+                if (cli.hasOption(OptionConstants.STREAM_WINDOW_LONG)) {
+                    command.setStreamWindow(resolveStreamWindow());
+                }
+                if (cli.hasOption(OptionConstants.SCAN_LIMIT_LONG) || cli.hasOption(OptionConstants.SCAN_TAIL_LONG)) {
+                    command.setScanLimits(resolveScanLimit(OptionConstants.SCAN_LIMIT_LONG),
+                            resolveScanLimit(OptionConstants.SCAN_TAIL_LONG));
+                }
+
+                FileScanner scanner = createScanner();
+                if (metrics != null) {
+                    command.addHook(metrics);
+                    scanner = new InstrumentedScanner(scanner, metrics);
+                }
+                for (ExecutionHook hook : this.hooks) {
+                    command.addHook(hook);
+                }
 
-                if (!command.isHasError()) {
+                FileManifest manifest = null;
+                if (cli.hasOption(OptionConstants.INCREMENTAL_LONG)) {
+                    manifest = FileManifest.load(
+                            new File(rootDir, InserterConstants.MANIFEST_FILENAME).toPath(),
+                            sourceDir.toPath(),
+                            fingerprint(commandType, notices, newNotice));
+                    command.addHook(manifest);
+                }
+
+                IoExecutor executor = createExecutor();
+                command.setExecutor(executor);
+                // the pending file operations are included in the elapsed time
+                long start = System.nanoTime();
+                try {
+                    if (sourceDir == rootDir) {
+                        command.executeRecursively(rootDir, scanner);
+                    } else {
+                        command.setLinkUnchangedFiles(cli.hasOption(OptionConstants.HARD_LINK_LONG));
+                        command.executeRecursively(sourceDir, rootDir, scanner);
+                    }
+                } finally {
+                    if (executor != null) {
+                        executor.close();
+                    }
+                }
+                if (metrics != null) {
+                    metrics.setElapsedNanos(System.nanoTime() - start);
+                }
+
+                if (manifest != null) {
+                    manifest.save();
+                }
+
+                if (metrics != null) {
+                    metrics.writeSummary(writer);
+                    String metricsPath = cli.getOptionValue(OptionConstants.METRICS_LONG);
+                    if (metricsPath != null) {
+                        Files.write(resolveFile(metricsPath).toPath(), metrics.toJson().getBytes(StandardCharsets.UTF_8));
+                    }
+                }
+
+                if (command instanceof CheckCommand) {
+                    CheckCommand checkCommand = (CheckCommand) command;
+                    long compliant = checkCommand.getCompliantCount();
+                    long nonCompliant = checkCommand.getNonCompliantCount();
+                    writer.writeLine(UserMessagesConstants.CHECK_REPORT_MESSAGE,
+                            compliant + nonCompliant, compliant, nonCompliant);
+                    if (nonCompliant > 0 || command.isHasError()) {
+                        this.exitCode = 1;
+                    }
+                } else if (!command.isHasError()) {
                     writer.writeLine(UserMessagesConstants.SUCCESFULL_OPERATION_MESSAGE);
                 } else {
                     writer.writeLine(UserMessagesConstants.FAILD_OPERTION_MESSAGE,
                             rootDir.getAbsolutePath() + File.separator + InserterConstants.LOG_FILENAME);
                 }
-                if (this.fileHandler != null) {
-                    this.fileHandler.close();
-                    LOGGER.removeHandler(this.fileHandler);
-                }
+                this.failed = this.exitCode != 0 || command.isHasError();
             }
 
         } catch (MissingArgumentException e) {
@@ -171,9 +311,76 @@ public class CopyrightToolsEngine implements Runnable {
             LOGGER.log(Level.SEVERE, e.getMessage());
         } catch (Exception e) {
             LOGGER.log(Level.SEVERE, "Unknown exception: " + e.getClass().getName() + " " + e.getMessage());
+        } finally {
+            this.disableLogging();
         }
     }
 
+    /**
+     * Sets the directory against which the relative paths of the arguments
+     * are resolved, e.g. the directory of a client of the daemon. By default
+     * they are resolved against the current directory.
+     *
+     * @param workingDirectory
+     *            - the working directory
+     */
+    public void setWorkingDirectory(File workingDirectory) {
+        this.workingDirectory = workingDirectory;
+    }
+
+    /**
+     * Sets the input from which the list of paths is read when the paths
+     * option is -. The standard input by default.
+     *
+     * @param input
+     *            - the input
+     */
+    public void setInput(InputStream input) {
+        this.input = input;
+    }
+
+    /**
+     * Sets a shared pool on which the files are processed, e.g. by the jobs
+     * of a batch. The pool replaces the threads option.
+     *
+     * @param workerPool
+     *            - the pool of the worker threads
+     */
+    public void setWorkerPool(ForkJoinPool workerPool) {
+        this.workerPool = workerPool;
+    }
+
+    /**
+     * Adds a hook to the commands of the next runs, e.g. to collect the
+     * results of all jobs of a batch.
+     *
+     * @param hook
+     *            - the hook
+     */
+    public void addHook(ExecutionHook hook) {
+        this.hooks.add(hook);
+    }
+
+    /**
+     * Checks whether the last run has failed: the arguments are invalid, an
+     * error has occurred or some files were not processed.
+     *
+     * @return <code>true</code> if the last run has failed
+     */
+    public boolean isFailed() {
+        return this.failed;
+    }
+
+    /**
+     * Gets the exit code of the last run. The code is not zero when the check
+     * command finds files without a notice.
+     *
+     * @return the exit code
+     */
+    public int getExitCode() {
+        return this.exitCode;
+    }
+
     /**
      * Enables the logging capabilities. Creates a log file in the roots path.
      *
@@ -185,10 +392,43 @@ public class CopyrightToolsEngine implements Runnable {
     private void enableLogging(String rootPath) throws SecurityException, IOException {
         LOGGER.setLevel(Level.ALL);
         String logFilePath = rootPath + File.separator + InserterConstants.LOG_FILENAME;
-        this.fileHandler = new FileHandler(logFilePath);
+        FileHandler fileHandler = new FileHandler(logFilePath);
         fileHandler.setFormatter(new SimpleFormatter());
         fileHandler.setLevel(Level.ALL);
-        LOGGER.addHandler(fileHandler);
+
+        // the console output is written by the same background thread
+        this.logHandler = new AsyncLogHandler(AsyncLogHandler.DEFAULT_CAPACITY, fileHandler, new ConsoleHandler());
+        LOGGER.setUseParentHandlers(false);
+        LOGGER.addHandler(this.logHandler);
+    }
+
+    /**
+     * Writes the pending log records and closes the log file, if the logging
+     * is enabled.
+     */
+    private void disableLogging() {
+        if (this.logHandler != null) {
+            LOGGER.removeHandler(this.logHandler);
+            LOGGER.setUseParentHandlers(true);
+            this.logHandler.close();
+            this.logHandler = null;
+        }
+    }
+
+    /**
+     * Resolves a path of the arguments against the working directory.
+     *
+     * @param path
+     *            - the path
+     * @return the file
+     */
+    private File resolveFile(String path) {
+        File file = new File(path);
+        if (this.workingDirectory == null || file.isAbsolute()) {
+            return file;
+        }
+
+        return new File(this.workingDirectory, path);
     }
 
     /**
@@ -209,6 +449,246 @@ public class CopyrightToolsEngine implements Runnable {
         return notice;
     }
 
+    /**
+     * Resolves the {@link FileManipulator manipulator} for the current
+     * command. With the preserve option the files are manipulated byte by byte.
+     * With the map threshold option the large files are also memory-mapped.
+     * With the stream window and the scan limit options the files are streamed
+     * as bytes, but trimmed unless the preserve option is given, so the result
+     * is the same as without them.
+     *
+     * @return the manipulator
+     * @throws ArgumentParseException
+     *             - thrown when the threshold is not a valid size
+     * @throws MissingArgumentException
+     *             - thrown when the threshold option has no argument
+     */
+    private FileManipulator resolveManipulator() throws ArgumentParseException, MissingArgumentException {
+        if (this.cli.hasOption(OptionConstants.MAP_THRESHOLD_LONG)) {
+            return new MappedSourceManipulator(parseSize(this.cli.getOptionValue(OptionConstants.MAP_THRESHOLD_LONG)),
+                    this.commandFactory.getNoticeRegistry());
+        }
+        if (this.cli.hasOption(OptionConstants.PRESERVE_SHORT)) {
+            return new ByteSourceManipulator(this.commandFactory.getNoticeRegistry());
+        }
+        // the files are streamed as bytes, but trimmed as without the options
+        if (this.cli.hasOption(OptionConstants.STREAM_WINDOW_LONG)
+                || this.cli.hasOption(OptionConstants.SCAN_LIMIT_LONG)
+                || this.cli.hasOption(OptionConstants.SCAN_TAIL_LONG)) {
+            return new ByteSourceManipulator(this.commandFactory.getNoticeRegistry(), false);
+        }
+
+        return this.manipulator;
+    }
+
+    /**
+     * Creates a {@link FileScanner scanner} for the root directory. When a
+     * list of paths is given only the listed files are visited. A parallel
+     * scanner is used on the shared worker pool, if any, or when more than one
+     * thread is requested.
+     *
+     * @return the scanner
+     * @throws ArgumentParseException
+     *             - thrown when the threads option is invalid
+     * @throws MissingArgumentException
+     *             - thrown when the threads option has no argument
+     * @throws IOException
+     *             - thrown when failed to read the list of paths
+     */
+    private FileScanner createScanner() throws ArgumentParseException, MissingArgumentException, IOException {
+        if (this.cli.hasOption(OptionConstants.PATHS_LONG)) {
+            String source = this.cli.getOptionValue(OptionConstants.PATHS_LONG);
+            if (OptionConstants.STANDARD_INPUT.equals(source)) {
+                // the standard input is not closed
+                return PathListScanner.read(new InputStreamReader(this.input));
+            }
+
+            try (Reader reader = Files.newBufferedReader(resolveFile(source).toPath())) {
+                return PathListScanner.read(reader);
+            }
+        }
+
+        if (this.workerPool != null) {
+            return new ForkJoinScanner(this.workerPool);
+        }
+
+        int threads = resolveThreads();
+        if (threads > 1) {
+            return new ForkJoinScanner(threads);
+        }
+
+        return new TreeWalkScanner();
+    }
+
+    /**
+     * Creates the executor of the file operations when the virtual threads
+     * option is given.
+     *
+     * @return the executor or <code>null</code> to run the file operations on
+     *         the scanning threads
+     * @throws ArgumentParseException
+     *             - thrown when the number of the open files is invalid
+     * @throws MissingArgumentException
+     *             - thrown when the option has no argument
+     */
+    private IoExecutor createExecutor() throws ArgumentParseException, MissingArgumentException {
+        if (!this.cli.hasOption(OptionConstants.VIRTUAL_THREADS_LONG)) {
+            return null;
+        }
+
+        String value = this.cli.getOptionValue(OptionConstants.VIRTUAL_THREADS_LONG);
+        try {
+            int maxOpenFiles = Integer.parseInt(value);
+            if (maxOpenFiles < 1) {
+                throw new ArgumentParseException("The number of the open files must be positive: " + value);
+            }
+            return new IoExecutor(maxOpenFiles);
+        } catch (NumberFormatException e) {
+            throw new ArgumentParseException("Invalid number of open files: " + value);
+        }
+    }
+
+    /**
+     * Resolves the size of the window through which the files are streamed.
+     *
+     * @return the window size in bytes
+     * @throws ArgumentParseException
+     *             - thrown when the option value is not a valid positive size
+     * @throws MissingArgumentException
+     *             - thrown when the option has no argument
+     */
+    private int resolveStreamWindow() throws ArgumentParseException, MissingArgumentException {
+        String value = this.cli.getOptionValue(OptionConstants.STREAM_WINDOW_LONG);
+        long window = parseSize(value);
+        if (window < 1 || window > Integer.MAX_VALUE) {
+            throw new ArgumentParseException("Invalid stream window: " + value);
+        }
+
+        return (int) window;
+    }
+
+    /**
+     * Resolves a scan limit of the head or the tail of the files.
+     *
+     * @param option
+     *            - the scan limit option
+     * @return the number of the searched bytes, 0 if the option is missing
+     * @throws ArgumentParseException
+     *             - thrown when the option value is not a valid positive size
+     * @throws MissingArgumentException
+     *             - thrown when the option has no argument
+     */
+    private long resolveScanLimit(String option) throws ArgumentParseException, MissingArgumentException {
+        if (!this.cli.hasOption(option)) {
+            return 0;
+        }
+
+        String value = this.cli.getOptionValue(option);
+        long limit = parseSize(value);
+        if (limit < 1) {
+            throw new ArgumentParseException("Invalid scan limit: " + value);
+        }
+
+        return limit;
+    }
+
+    /**
+     * Parses a size in bytes with an optional k, m or g suffix, e.g. 64m.
+     *
+     * @param value
+     *            - the size
+     * @return the number of bytes
+     * @throws ArgumentParseException
+     *             - thrown when the value is not a valid size
+     */
+    private static long parseSize(String value) throws ArgumentParseException {
+        String size = value.trim().toLowerCase(Locale.ROOT);
+        int shift = 0;
+        if (size.endsWith("k")) {
+            shift = 10;
+        } else if (size.endsWith("m")) {
+            shift = 20;
+        } else if (size.endsWith("g")) {
+            shift = 30;
+        }
+        if (shift > 0) {
+            size = size.substring(0, size.length() - 1);
+        }
+
+        try {
+            long bytes = Long.parseLong(size);
+            if (bytes < 0 || bytes > Long.MAX_VALUE >> shift) {
+                throw new ArgumentParseException("Invalid size: " + value);
+            }
+            return bytes << shift;
+        } catch (NumberFormatException e) {
+            throw new ArgumentParseException("Invalid size: " + value);
+        }
+    }
+
+    /**
+     * Resolves the number of worker threads from the threads option.
+     *
+     * @return the number of worker threads, 1 if the option is missing
+     * @throws ArgumentParseException
+     *             - thrown when the option value is not a positive number
+     * @throws MissingArgumentException
+     *             - thrown when the option has no argument
+     */
+    private int resolveThreads() throws ArgumentParseException, MissingArgumentException {
+        if (!this.cli.hasOption(OptionConstants.THREADS_SHORT)) {
+            return 1;
+        }
+
+        String value = this.cli.getOptionValue(OptionConstants.THREADS_SHORT);
+        try {
+            int threads = Integer.parseInt(value);
+            if (threads < 1) {
+                throw new ArgumentParseException("The number of threads must be positive: " + value);
+            }
+            return threads;
+        } catch (NumberFormatException e) {
+            throw new ArgumentParseException("Invalid number of threads: " + value);
+        }
+    }
+
+    /**
+     * Computes the fingerprint of the state in which the command leaves the
+     * files. The insert and the check commands share the fingerprint, so a
+     * check after an insert skips the inserted files.
+     *
+     * @param commandType
+     *            - the command type
+     * @param notices
+     *            - the notices
+     * @param newNotice
+     *            - the new notice, may be null
+     * @return the fingerprint
+     */
+    private static long fingerprint(CommandType commandType, String[] notices, String newNotice) {
+        String state;
+        switch (commandType) {
+        case INSERT_BEFORE:
+        case CHECK_BEFORE:
+            state = "before";
+            break;
+        case INSERT_AFTER:
+        case CHECK_AFTER:
+            state = "after";
+            break;
+        default:
+            state = commandType.name();
+            break;
+        }
+
+        String[] parts = new String[notices.length + 2];
+        parts[0] = state;
+        System.arraycopy(notices, 0, parts, 1, notices.length);
+        parts[parts.length - 1] = newNotice;
+
+        return FileManifest.fingerprint(parts);
+    }
+
     private CommandType resolveCommandType(String consoleCommand) throws InvalidCommandException {
 
         CommandType resultCommand = null;
@@ -224,6 +704,10 @@ public class CopyrightToolsEngine implements Runnable {
         case ConsoleCommandConstants.REPLACE:
             resultCommand = CommandType.REPLACE;
             break;
+        case ConsoleCommandConstants.CHECK:
+            boolean bottomCheck = this.cli.hasOption(OptionConstants.BOOTOM_SHORT);
+            resultCommand = bottomCheck ? CommandType.CHECK_AFTER : CommandType.CHECK_BEFORE;
+            break;
         default:
             throw new InvalidCommandException("The comand cannot be resolved. Command: " + consoleCommand + " .");
         }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import com.coprtools.constants.OptionConstants;
+import com.coprtools.main.CopyrightToolsMain;
+
+/**
+ * A thin client of the {@link DaemonServer daemon}. It only forwards the
+ * arguments, the current directory and, for <code>--paths -</code>, the
+ * standard input, so it starts without loading the engine. When no daemon is
+ * running the command is executed in this process.
+ *
+ * @author Dimcho Nedev
+ */
+public final class DaemonClient {
+
+    private static final int COPY_BUFFER_SIZE = 8192;
+
+    private final Path stateFile;
+
+    /**
+     * @param stateFile
+     *            - the state file of the daemon
+     */
+    public DaemonClient(Path stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Creates a client of the daemon with the default state file in the
+     * user's home folder.
+     */
+    public DaemonClient() {
+        this(DaemonProtocol.defaultStateFile());
+    }
+
+    public static void main(String[] args) {
+        DaemonClient client = new DaemonClient();
+        int exitCode;
+        try {
+            InputStream input = readsStandardInput(args) ? System.in : null;
+            exitCode = client.execute(new File("").getAbsoluteFile(), args, input, System.out, System.err);
+        } catch (NoSuchFileException | ConnectException e) {
+            // no daemon is running
+            CopyrightToolsMain.main(args);
+            return;
+        } catch (IOException e) {
+            System.err.println("Daemon request failed: " + e.getMessage());
+            exitCode = 1;
+        }
+
+        if (exitCode != 0) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Executes a command in the daemon.
+     *
+     * @param workingDirectory
+     *            - the directory against which the relative paths are resolved
+     * @param args
+     *            - the command arguments
+     * @param input
+     *            - the input sent as the standard input or <code>null</code>
+     * @param out
+     *            - the output of the command
+     * @param err
+     *            - the error output of the command
+     * @return the exit code of the command
+     * @throws IOException
+     *             - thrown when no daemon is running or the connection failed
+     */
+    public int execute(File workingDirectory, String[] args, InputStream input, PrintStream out, PrintStream err)
+            throws IOException {
+        try (Socket socket = this.connect()) {
+            DataOutputStream request = this.request(socket, DaemonProtocol.RUN_REQUEST);
+            DaemonProtocol.writeString(request, workingDirectory.getAbsolutePath());
+            request.writeInt(args.length);
+            for (String arg : args) {
+                DaemonProtocol.writeString(request, arg);
+            }
+            request.writeBoolean(input != null);
+            if (input != null) {
+                DaemonProtocol.writeBytes(request, readAll(input));
+            }
+            request.flush();
+
+            return this.response(socket, out, err);
+        }
+    }
+
+    /**
+     * Checks whether a daemon is running.
+     *
+     * @return <code>true</code> if the daemon answers
+     */
+    public boolean ping() {
+        try (Socket socket = this.connect()) {
+            this.request(socket, DaemonProtocol.PING_REQUEST).flush();
+            return this.response(socket, System.out, System.err) == 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Stops the running daemon.
+     *
+     * @throws IOException
+     *             - thrown when no daemon is running or the connection failed
+     */
+    public void stop() throws IOException {
+        try (Socket socket = this.connect()) {
+            this.request(socket, DaemonProtocol.STOP_REQUEST).flush();
+            this.response(socket, System.out, System.err);
+        }
+    }
+
+    private Socket connect() throws IOException {
+        List<String> state = Files.readAllLines(this.stateFile, StandardCharsets.US_ASCII);
+        if (state.size() < 2) {
+            throw new IOException("Invalid daemon state file: " + this.stateFile);
+        }
+
+        try {
+            return new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(state.get(0).trim()));
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid daemon state file: " + this.stateFile);
+        }
+    }
+
+    private DataOutputStream request(Socket socket, byte type) throws IOException {
+        List<String> state = Files.readAllLines(this.stateFile, StandardCharsets.US_ASCII);
+        DataOutputStream request = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        request.write(Base64.getDecoder().decode(state.get(1).trim()));
+        request.writeByte(type);
+        return request;
+    }
+
+    private int response(Socket socket, PrintStream out, PrintStream err) throws IOException {
+        DataInputStream response = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        while (true) {
+            byte frame = response.readByte();
+            if (frame == DaemonProtocol.EXIT_FRAME) {
+                return response.readInt();
+            }
+
+            String line = DaemonProtocol.readString(response);
+            if (frame == DaemonProtocol.ERROR_FRAME) {
+                err.println(line);
+            } else {
+                out.println(line);
+            }
+        }
+    }
+
+    private static boolean readsStandardInput(String[] args) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (("--" + OptionConstants.PATHS_LONG).equals(args[i])
+                    && OptionConstants.STANDARD_INPUT.equals(args[i + 1])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static byte[] readAll(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        int count;
+        while ((count = input.read(buffer)) != -1) {
+            bytes.write(buffer, 0, count);
+        }
+
+        return bytes.toByteArray();
+    }
+}
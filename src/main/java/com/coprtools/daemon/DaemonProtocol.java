@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.daemon;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.coprtools.constants.InserterConstants;
+
+/**
+ * The wire format between the {@link DaemonClient client} and the
+ * {@link DaemonServer daemon}. A request starts with the token of the daemon
+ * and the request type. A run request continues with the working directory,
+ * the arguments and the optional standard input of the client. The daemon
+ * answers with output and error frames followed by an exit frame.
+ *
+ * @author Dimcho Nedev
+ */
+final class DaemonProtocol {
+
+    static final int TOKEN_LENGTH = 32;
+
+    static final byte RUN_REQUEST = 1;
+
+    static final byte PING_REQUEST = 2;
+
+    static final byte STOP_REQUEST = 3;
+
+    static final byte OUTPUT_FRAME = 1;
+
+    static final byte ERROR_FRAME = 2;
+
+    static final byte EXIT_FRAME = 3;
+
+    static final int MAX_ARGUMENTS = 4096;
+
+    static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    static final int MAX_INPUT_LENGTH = 256 * 1024 * 1024;
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * @return the default state file of the daemon in the user's home folder
+     */
+    static Path defaultStateFile() {
+        return Paths.get(System.getProperty("user.home"), InserterConstants.DAEMON_STATE_FILENAME);
+    }
+
+    static void writeBytes(DataOutputStream out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a length or a count, so a broken or a hostile request cannot make
+     * the daemon allocate an arbitrary amount of memory.
+     *
+     * @throws ProtocolException
+     *             - thrown when the value is negative or greater than the
+     *             maximum
+     */
+    static int readLength(DataInputStream in, int max) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > max) {
+            throw new ProtocolException("Invalid length: " + length);
+        }
+
+        return length;
+    }
+
+    static byte[] readBytes(DataInputStream in, int max) throws IOException {
+        byte[] bytes = new byte[readLength(in, max)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Writes a string as UTF-8 bytes. Unlike
+     * {@link DataOutputStream#writeUTF(String)} the length is not limited to
+     * 64K, so a notice can be passed as an argument.
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        writeBytes(out, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        return new String(readBytes(in, MAX_STRING_LENGTH), StandardCharsets.UTF_8);
+    }
+}
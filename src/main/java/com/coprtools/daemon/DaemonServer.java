@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.daemon;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ProtocolException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.coprtools.cli.ApacheCliConsole;
+import com.coprtools.commands.CommandFactory;
+import com.coprtools.core.CopyrightToolsEngine;
+import com.coprtools.util.FileManipulator;
+import com.coprtools.util.SourceManipulator;
+
+/**
+ * A long-running daemon which executes the commands of the
+ * {@link DaemonClient clients}, so they don't pay for the JVM startup and run
+ * on a warmed-up JIT. The notices and their matchers stay in the
+ * {@link com.coprtools.notice.NoticeRegistry registry} between the requests.
+ * The daemon listens on a loopback port. The port and a
+ * random token are written to a state file which only the owner can read, and
+ * every request must start with the token.
+ * <p>
+ * Note: The requests are executed one by one, because the commands share the
+ * engine's logger.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class DaemonServer implements Runnable, Closeable {
+    private static final Logger LOGGER = Logger.getLogger(CopyrightToolsEngine.class.getName());
+
+    private static final int BACKLOG = 50;
+
+    private static final int READ_TIMEOUT_MILLIS = 30000;
+
+    private final Path stateFile;
+
+    private final CommandFactory commandFactory = new CommandFactory();
+
+    private final FileManipulator manipulator = new SourceManipulator(this.commandFactory.getNoticeRegistry());
+
+    private final byte[] token = new byte[DaemonProtocol.TOKEN_LENGTH];
+
+    private ServerSocket serverSocket;
+
+    private volatile boolean running;
+
+    /**
+     * @param stateFile
+     *            - the file to which the port and the token are written
+     */
+    public DaemonServer(Path stateFile) {
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Creates a daemon with the default state file in the user's home folder.
+     */
+    public DaemonServer() {
+        this(DaemonProtocol.defaultStateFile());
+    }
+
+    /**
+     * Binds the daemon to a free loopback port and writes the state file.
+     *
+     * @throws IOException
+     *             - thrown when failed to bind or to write the state file
+     */
+    public void start() throws IOException {
+        this.serverSocket = new ServerSocket(0, BACKLOG, InetAddress.getLoopbackAddress());
+        new SecureRandom().nextBytes(this.token);
+        try {
+            this.writeState();
+        } catch (IOException e) {
+            this.serverSocket.close();
+            throw e;
+        }
+        this.running = true;
+    }
+
+    /**
+     * Serves the requests until a stop request is received or the daemon is
+     * closed.
+     */
+    @Override
+    public void run() {
+        try {
+            while (this.running) {
+                try (Socket socket = this.serverSocket.accept()) {
+                    socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+                    this.handle(socket);
+                } catch (IOException e) {
+                    if (this.running) {
+                        LOGGER.log(Level.WARNING, "Daemon request failed: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            this.close();
+        }
+    }
+
+    /**
+     * Stops the daemon and deletes the state file.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        try {
+            if (this.serverSocket != null) {
+                this.serverSocket.close();
+            }
+            Files.deleteIfExists(this.stateFile);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, e.getMessage());
+        }
+    }
+
+    /**
+     * @return the port of the daemon
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    private void handle(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        byte[] received = new byte[this.token.length];
+        in.readFully(received);
+        if (!MessageDigest.isEqual(this.token, received)) {
+            LOGGER.log(Level.WARNING, "Daemon request with an invalid token");
+            return;
+        }
+
+        RemoteWriter writer = new RemoteWriter(out);
+        try {
+            this.execute(in, writer);
+        } catch (ProtocolException | RuntimeException e) {
+            // a single request must not stop the daemon
+            LOGGER.log(Level.WARNING, "Daemon request failed: " + e.getMessage(), e);
+            writer.writeError("Daemon request failed: " + e.getMessage());
+            writer.exit(1);
+        }
+    }
+
+    private void execute(DataInputStream in, RemoteWriter writer) throws IOException {
+        byte type = in.readByte();
+        if (type == DaemonProtocol.STOP_REQUEST) {
+            this.running = false;
+            writer.exit(0);
+            return;
+        }
+        if (type != DaemonProtocol.RUN_REQUEST) {
+            writer.exit(0);
+            return;
+        }
+
+        File workingDirectory = new File(DaemonProtocol.readString(in));
+        String[] arguments = new String[DaemonProtocol.readLength(in, DaemonProtocol.MAX_ARGUMENTS)];
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = DaemonProtocol.readString(in);
+        }
+        byte[] input = in.readBoolean() ? DaemonProtocol.readBytes(in, DaemonProtocol.MAX_INPUT_LENGTH) : null;
+
+        CopyrightToolsEngine engine = new CopyrightToolsEngine(
+                new ApacheCliConsole(arguments), this.manipulator, writer, this.commandFactory);
+        engine.setWorkingDirectory(workingDirectory);
+        if (input != null) {
+            engine.setInput(new ByteArrayInputStream(input));
+        }
+
+        LOGGER.addHandler(writer.getLogHandler());
+        try {
+            engine.run();
+        } finally {
+            LOGGER.removeHandler(writer.getLogHandler());
+        }
+        writer.exit(engine.getExitCode());
+    }
+
+    /**
+     * Writes the port and the token to the state file. The file is created
+     * readable only by the owner where the file system supports it.
+     */
+    private void writeState() throws IOException {
+        Files.deleteIfExists(this.stateFile);
+        try {
+            Files.createFile(this.stateFile,
+                    PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } catch (UnsupportedOperationException e) {
+            Files.createFile(this.stateFile);
+        }
+
+        String state = this.getPort() + System.lineSeparator() + Base64.getEncoder().encodeToString(this.token);
+        Files.write(this.stateFile, state.getBytes(StandardCharsets.US_ASCII));
+    }
+}
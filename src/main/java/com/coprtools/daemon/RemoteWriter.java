@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.daemon;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.logging.ErrorManager;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.SimpleFormatter;
+
+import com.coprtools.writer.Writer;
+
+/**
+ * A {@link Writer} that sends the lines to a client of the daemon. The log
+ * records are sent through the {@link #getLogHandler() log handler} to the
+ * client's error output.
+ *
+ * @author Dimcho Nedev
+ */
+class RemoteWriter implements Writer {
+
+    private final DataOutputStream out;
+
+    private final Handler logHandler = new Handler() {
+        private final SimpleFormatter formatter = new SimpleFormatter();
+
+        @Override
+        public void publish(LogRecord record) {
+            if (!isLoggable(record)) {
+                return;
+            }
+
+            try {
+                send(DaemonProtocol.ERROR_FRAME,
+                        record.getLevel().getLocalizedName() + ": " + this.formatter.formatMessage(record));
+            } catch (IOException e) {
+                reportError(e.getMessage(), e, ErrorManager.WRITE_FAILURE);
+            }
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    /**
+     * @param out
+     *            - the output of the client's connection
+     */
+    RemoteWriter(DataOutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeLine(String line) {
+        try {
+            send(DaemonProtocol.OUTPUT_FRAME, line);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void writeLine(String format, Object... args) {
+        this.writeLine(String.format(format, args));
+    }
+
+    /**
+     * @return the handler which sends the log records to the client
+     */
+    Handler getLogHandler() {
+        return this.logHandler;
+    }
+
+    /**
+     * Sends a line to the client's error output.
+     *
+     * @param line
+     *            - the line
+     * @throws IOException
+     *             - thrown when failed to send the line
+     */
+    void writeError(String line) throws IOException {
+        send(DaemonProtocol.ERROR_FRAME, line);
+    }
+
+    /**
+     * Sends the exit code and ends the response.
+     *
+     * @param code
+     *            - the exit code
+     * @throws IOException
+     *             - thrown when failed to send the code
+     */
+    synchronized void exit(int code) throws IOException {
+        this.out.writeByte(DaemonProtocol.EXIT_FRAME);
+        this.out.writeInt(code);
+        this.out.flush();
+    }
+
+    // the commands may log from several threads
+    private synchronized void send(byte frame, String line) throws IOException {
+        this.out.writeByte(frame);
+        DaemonProtocol.writeString(this.out, line);
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.exceptions;
+
+/**
+ * The exception is thrown when a checked file does not contain the notice.
+ *
+ * @author Dimcho Nedev
+ */
+public class MissingNoticeException extends Exception {
+    private static final long serialVersionUID = -6385237119482094617L;
+
+    public MissingNoticeException(String message) {
+        super(message);
+    }
+}
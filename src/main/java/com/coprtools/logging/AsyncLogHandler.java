@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.logging;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+/**
+ * A {@link Handler} that passes the records to other handlers on a background
+ * thread. The logging thread only enqueues the record, the message is
+ * formatted and written later by the writer thread in batches, with a single
+ * flush per batch.
+ * <p>
+ * The queue is lock-free and bounded. When it is full the logging threads
+ * wait for free space, so no record is lost. The records of every thread are
+ * written in the order they were logged.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class AsyncLogHandler extends Handler {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int BATCH_SIZE = 512;
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final Handler[] targets;
+
+    private final int capacity;
+
+    private final Queue<LogRecord> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Thread writer;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates the handler and starts its writer thread.
+     *
+     * @param capacity
+     *            - the maximal number of the pending records
+     * @param targets
+     *            - the handlers that format and write the records
+     */
+    public AsyncLogHandler(int capacity, Handler... targets) {
+        this.capacity = capacity;
+        this.targets = targets;
+        setLevel(Level.ALL);
+
+        this.writer = new Thread(this::writeLoop, "copyright-tools-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void publish(LogRecord record) {
+        if (this.closed || !isLoggable(record)) {
+            return;
+        }
+
+        // the caller must be found on the logging thread, not on the writer
+        record.getSourceClassName();
+
+        int pending;
+        while (true) {
+            pending = this.size.get();
+            if (pending < this.capacity) {
+                if (this.size.compareAndSet(pending, pending + 1)) {
+                    break;
+                }
+            } else if (this.closed) {
+                return;
+            } else {
+                LockSupport.unpark(this.writer);
+                LockSupport.parkNanos(this, FULL_PARK_NANOS);
+            }
+        }
+
+        this.queue.offer(record);
+        if (pending == 0) {
+            LockSupport.unpark(this.writer);
+        }
+    }
+
+    /**
+     * Waits until all pending records are written and flushed.
+     */
+    @Override
+    public void flush() {
+        while (this.size.get() > 0 && this.writer.isAlive()) {
+            LockSupport.unpark(this.writer);
+            LockSupport.parkNanos(this, FULL_PARK_NANOS);
+        }
+    }
+
+    /**
+     * Writes all pending records, stops the writer thread and closes the
+     * target handlers.
+     */
+    @Override
+    public void close() throws SecurityException {
+        this.closed = true;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // the records enqueued while closing
+        while (writeBatch() > 0) {
+            // nothing to do here
+        }
+
+        for (Handler target : this.targets) {
+            target.close();
+        }
+    }
+
+    private void writeLoop() {
+        while (!this.closed) {
+            if (writeBatch() == 0) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private int writeBatch() {
+        int written = 0;
+        LogRecord record;
+        while (written < BATCH_SIZE && (record = this.queue.poll()) != null) {
+            for (Handler target : this.targets) {
+                target.publish(record);
+            }
+            written++;
+        }
+
+        if (written > 0) {
+            for (Handler target : this.targets) {
+                target.flush();
+            }
+            this.size.addAndGet(-written);
+        }
+
+        return written;
+    }
+}
@@ -16,12 +16,20 @@
 
 package com.coprtools.main;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Arrays;
 
+import com.coprtools.batch.BatchRunner;
 import com.coprtools.cli.AbstractConsole;
 import com.coprtools.cli.ApacheCliConsole;
 import com.coprtools.commands.CommandFactory;
+import com.coprtools.constants.ConsoleCommandConstants;
+import com.coprtools.constants.UserMessagesConstants;
 import com.coprtools.core.CopyrightToolsEngine;
+import com.coprtools.daemon.DaemonClient;
+import com.coprtools.daemon.DaemonServer;
+import com.coprtools.exceptions.ArgumentParseException;
 import com.coprtools.util.FileManipulator;
 import com.coprtools.util.SourceManipulator;
 import com.coprtools.writer.ConsoleWriter;
@@ -40,13 +48,82 @@ public class CopyrightToolsMain {
         // TODO: This solution can be useful: https://stackoverflow.com/a/14357255/2595579
         if(Arrays.asList(args).contains("-h") || Arrays.asList(args).contains("--help")) {
             cli.showUsage();
+        } else if (args.length > 0 && ConsoleCommandConstants.DAEMON.equals(args[0])) {
+            runDaemon(args);
+        } else if (args.length > 0 && ConsoleCommandConstants.BATCH.equals(args[0])) {
+            runBatch(args);
         } else {
-            FileManipulator manipulator = new SourceManipulator();
-            Writer writer = new ConsoleWriter();
             CommandFactory commandFactrory = new CommandFactory();
+            FileManipulator manipulator = new SourceManipulator(commandFactrory.getNoticeRegistry());
+            Writer writer = new ConsoleWriter();
             CopyrightToolsEngine engine = new CopyrightToolsEngine(cli, manipulator, writer, commandFactrory);
 
             engine.run();
+            if (engine.getExitCode() != 0) {
+                System.exit(engine.getExitCode());
+            }
+        }
+    }
+
+    /**
+     * Runs the jobs of a job file on a shared worker pool.
+     *
+     * @param args
+     *            - the batch command arguments
+     */
+    private static void runBatch(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        if (args.length == 4 && ConsoleCommandConstants.BATCH_THREADS.equals(args[2])) {
+            threads = parseThreads(args[3]);
+        } else if (args.length != 2) {
+            threads = 0;
+        }
+        if (threads < 1) {
+            System.err.println(UserMessagesConstants.BATCH_USAGE_MESSAGE);
+            System.exit(1);
+        }
+
+        try (BatchRunner runner = new BatchRunner(threads, new ConsoleWriter())) {
+            if (!runner.run(new File(args[1]))) {
+                System.exit(1);
+            }
+        } catch (IOException | ArgumentParseException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static int parseThreads(String threads) {
+        try {
+            return Integer.parseInt(threads);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Starts the daemon in this process or stops the running one.
+     *
+     * @param args
+     *            - the daemon command arguments
+     */
+    private static void runDaemon(String[] args) {
+        DaemonClient client = new DaemonClient();
+        try {
+            if (args.length > 1 && ConsoleCommandConstants.DAEMON_STOP.equals(args[1])) {
+                client.stop();
+            } else if (client.ping()) {
+                System.err.println(UserMessagesConstants.DAEMON_RUNNING_MESSAGE);
+                System.exit(1);
+            } else {
+                DaemonServer server = new DaemonServer();
+                server.start();
+                System.out.println(String.format(UserMessagesConstants.DAEMON_STARTED_MESSAGE, server.getPort()));
+                server.run();
+            }
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
         }
     }
 }
@@ -0,0 +1,307 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.manifest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import com.coprtools.commands.ExecutionHook;
+import com.coprtools.commands.ExecutionResult;
+
+/**
+ * A persistent record of the files which are already in the desired state.
+ * For every file the manifest keeps the size, the last modified time, a
+ * content hash and the fingerprint of the notices the file was processed
+ * with. A file is up to date when its fingerprint matches and its size and
+ * last modified time are not changed. When only the time is changed the
+ * content hash decides.
+ * <p>
+ * Note: A file modified in the same clock tick in which it was recorded cannot
+ * be told apart by its time, so the times close to the last save are always
+ * verified with the content hash.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class FileManifest implements ExecutionHook {
+
+    private static final int MAGIC = 0x4354464D;
+
+    private static final int VERSION = 1;
+
+    /**
+     * The coarsest time resolution of the common file systems (FAT).
+     */
+    private static final long RACY_WINDOW_MILLIS = 2000;
+
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+
+    private final Path root;
+
+    private final long fingerprint;
+
+    private final long savedAt;
+
+    private final Map<String, Entry> entries;
+
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    private FileManifest(Path file, Path root, long fingerprint, long savedAt, Map<String, Entry> entries) {
+        this.file = file;
+        this.root = root.toAbsolutePath().normalize();
+        this.fingerprint = fingerprint;
+        this.savedAt = savedAt;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the manifest from a file. An empty manifest is returned when the
+     * file does not exist or has an unknown format.
+     *
+     * @param file
+     *            - the manifest file
+     * @param root
+     *            - the root directory, the paths are stored relative to it
+     * @param fingerprint
+     *            - the fingerprint of the current notices
+     * @return the manifest
+     * @throws IOException
+     *             - thrown when failed to read the manifest file
+     */
+    public static FileManifest load(Path file, Path root, long fingerprint) throws IOException {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return new FileManifest(file, root, fingerprint, 0, entries);
+            }
+
+            long savedAt = in.readLong();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String path = in.readUTF();
+                entries.put(path, new Entry(in.readLong(), in.readLong(), in.readInt(), in.readLong()));
+            }
+
+            return new FileManifest(file, root, fingerprint, savedAt, entries);
+        } catch (NoSuchFileException | EOFException e) {
+            return new FileManifest(file, root, fingerprint, 0, new ConcurrentHashMap<String, Entry>());
+        }
+    }
+
+    /**
+     * Computes a fingerprint of the given texts, e.g. the notices.
+     *
+     * @param parts
+     *            - the texts, null values are allowed
+     * @return the fingerprint
+     */
+    public static long fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                if (part != null) {
+                    digest.update(part.getBytes(StandardCharsets.UTF_8));
+                }
+                digest.update((byte) 0);
+            }
+
+            return ByteBuffer.wrap(digest.digest()).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean isUpToDate(File file, BasicFileAttributes attributes) {
+        String key = key(file);
+        this.seen.add(key);
+
+        Entry entry = this.entries.get(key);
+        if (entry == null || entry.fingerprint != this.fingerprint || entry.size != attributes.size()) {
+            return false;
+        }
+
+        long modified = attributes.lastModifiedTime().toMillis();
+        if (entry.modified == modified && modified < this.savedAt - RACY_WINDOW_MILLIS) {
+            return true;
+        }
+
+        try {
+            int hash = hash(file.toPath());
+            if (hash != entry.hash) {
+                return false;
+            }
+            this.entries.put(key, new Entry(entry.size, modified, hash, this.fingerprint));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Records the files which are in the desired state after the execution.
+     * <p>
+     * Note: The content hash is computed by reading the whole file once more,
+     * so recording a just written file doubles its I/O (the bytes are usually
+     * still in the page cache, though). The commands write through channel
+     * transfers that never pass the bytes to the JVM, so they cannot be hashed
+     * on the way. Only the processed files pay this cost, the up to date ones
+     * are not read at all.
+     * </p>
+     *
+     * @param file
+     *            - the file
+     * @param result
+     *            - the result of the execution
+     */
+    @Override
+    public void afterExecute(File file, ExecutionResult result) {
+        String key = key(file);
+        this.seen.add(key);
+
+        switch (result) {
+        case DONE:
+        case ALREADY_INSERTED:
+            try {
+                Path path = file.toPath();
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                this.entries.put(key, new Entry(attributes.size(),
+                        attributes.lastModifiedTime().toMillis(), hash(path), this.fingerprint));
+            } catch (IOException e) {
+                this.entries.remove(key);
+            }
+            break;
+        case UP_TO_DATE:
+            break;
+        default:
+            this.entries.remove(key);
+            break;
+        }
+    }
+
+    /**
+     * Saves the manifest to its file. The entries of the deleted
+     * files are dropped. The manifest is written to a temporary file which then
+     * replaces the old manifest.
+     *
+     * @throws IOException
+     *             - thrown when failed to write the manifest
+     */
+    public void save() throws IOException {
+        for (String key : this.entries.keySet()) {
+            if (!this.seen.contains(key) && !Files.exists(this.root.resolve(key))) {
+                this.entries.remove(key);
+            }
+        }
+
+        Path target = this.file;
+        Path temp = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(this.entries.size());
+                for (Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+                    Entry value = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(value.size);
+                    out.writeLong(value.modified);
+                    out.writeInt(value.hash);
+                    out.writeLong(value.fingerprint);
+                }
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * @return the number of the recorded files
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    private String key(File file) {
+        Path relative = this.root.relativize(file.toPath().toAbsolutePath().normalize());
+        return relative.toString().replace(File.separatorChar, '/');
+    }
+
+    private static int hash(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                crc.update(buffer);
+                buffer.clear();
+            }
+        }
+
+        return (int) crc.getValue();
+    }
+
+    private static final class Entry {
+        private final long size;
+
+        private final long modified;
+
+        private final int hash;
+
+        private final long fingerprint;
+
+        private Entry(long size, long modified, int hash, long fingerprint) {
+            this.size = size;
+            this.modified = modified;
+            this.hash = hash;
+            this.fingerprint = fingerprint;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.matching;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * A {@link NoticeMatcher} for a set of notices based on the Aho-Corasick
+ * automaton. All notices are searched together in a single pass over the text.
+ * <p>
+ * The matcher returns the leftmost occurrence. When several notices start at
+ * the same index, the longest one wins.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class AhoCorasickMatcher implements NoticeMatcher {
+
+    private static final int ROOT = 0;
+
+    private static final int NONE = -1;
+
+    private final int[] lengths;
+
+    private final int maxLength;
+
+    private final List<char[]> keys = new ArrayList<>();
+
+    private final List<int[]> targets = new ArrayList<>();
+
+    private int[] failure;
+
+    /** The index of the notice that ends in the state or {@link #NONE}. */
+    private int[] output;
+
+    /** The closest state on the failure chain with an output. */
+    private int[] dictionary;
+
+    /**
+     * @param notices
+     *            - the notices that will be searched
+     */
+    public AhoCorasickMatcher(String... notices) {
+        this.lengths = new int[notices.length];
+
+        int max = 0;
+        List<Integer> outputs = new ArrayList<>();
+        newState(outputs);
+        for (int i = 0; i < notices.length; i++) {
+            String notice = notices[i];
+            this.lengths[i] = notice.length();
+            max = Math.max(max, notice.length());
+            if (notice.isEmpty()) {
+                continue;
+            }
+
+            int state = ROOT;
+            for (int j = 0; j < notice.length(); j++) {
+                int next = transition(state, notice.charAt(j));
+                if (next == NONE) {
+                    next = newState(outputs);
+                    addTransition(state, notice.charAt(j), next);
+                }
+                state = next;
+            }
+            if (outputs.get(state) == NONE) {
+                outputs.set(state, i);
+            }
+        }
+        this.maxLength = max;
+
+        this.output = new int[outputs.size()];
+        for (int i = 0; i < this.output.length; i++) {
+            this.output[i] = outputs.get(i);
+        }
+        buildFailureLinks();
+    }
+
+    @Override
+    public Match find(CharSequence text, int fromIndex) {
+        int bestStart = NONE;
+        int bestNotice = NONE;
+
+        int state = ROOT;
+        for (int i = Math.max(fromIndex, 0); i < text.length(); i++) {
+            state = next(state, text.charAt(i));
+
+            int found = this.output[state] != NONE ? state : this.dictionary[state];
+            for (; found != NONE; found = this.dictionary[found]) {
+                int notice = this.output[found];
+                int start = i + 1 - this.lengths[notice];
+                if (bestStart == NONE || start < bestStart
+                        || (start == bestStart && this.lengths[notice] > this.lengths[bestNotice])) {
+                    bestStart = start;
+                    bestNotice = notice;
+                }
+            }
+
+            // no later match may start before the best one
+            if (bestStart != NONE && i + 1 - bestStart >= this.maxLength) {
+                break;
+            }
+        }
+
+        if (bestStart == NONE) {
+            return null;
+        }
+
+        return new Match(bestStart, bestStart + this.lengths[bestNotice], bestNotice);
+    }
+
+    @Override
+    public int getNoticeCount() {
+        return this.lengths.length;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return this.maxLength;
+    }
+
+    private int next(int state, char c) {
+        int next = transition(state, c);
+        while (next == NONE && state != ROOT) {
+            state = this.failure[state];
+            next = transition(state, c);
+        }
+
+        return next == NONE ? ROOT : next;
+    }
+
+    private void buildFailureLinks() {
+        int states = this.keys.size();
+        this.failure = new int[states];
+        this.dictionary = new int[states];
+        Arrays.fill(this.dictionary, NONE);
+
+        // breadth-first, so the failure state is always built before its use
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : this.targets.get(ROOT)) {
+            this.failure[child] = ROOT;
+            queue.add(child);
+        }
+
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            char[] stateKeys = this.keys.get(state);
+            int[] stateTargets = this.targets.get(state);
+            for (int i = 0; i < stateKeys.length; i++) {
+                int child = stateTargets[i];
+                int fail = next(this.failure[state], stateKeys[i]);
+                this.failure[child] = fail;
+                this.dictionary[child] = this.output[fail] != NONE ? fail : this.dictionary[fail];
+                queue.add(child);
+            }
+        }
+    }
+
+    private int newState(List<Integer> outputs) {
+        this.keys.add(new char[0]);
+        this.targets.add(new int[0]);
+        outputs.add(NONE);
+        return this.keys.size() - 1;
+    }
+
+    private int transition(int state, char c) {
+        char[] stateKeys = this.keys.get(state);
+        for (int i = 0; i < stateKeys.length; i++) {
+            if (stateKeys[i] == c) {
+                return this.targets.get(state)[i];
+            }
+        }
+
+        return NONE;
+    }
+
+    private void addTransition(int state, char c, int target) {
+        char[] stateKeys = Arrays.copyOf(this.keys.get(state), this.keys.get(state).length + 1);
+        int[] stateTargets = Arrays.copyOf(this.targets.get(state), stateKeys.length);
+        stateKeys[stateKeys.length - 1] = c;
+        stateTargets[stateTargets.length - 1] = target;
+        this.keys.set(state, stateKeys);
+        this.targets.set(state, stateTargets);
+    }
+}
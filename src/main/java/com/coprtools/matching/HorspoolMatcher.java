@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.matching;
+
+/**
+ * A {@link NoticeMatcher} for a single notice based on the Boyer-Moore-Horspool
+ * algorithm. The notice is matched literally, so it may contain any characters
+ * like <code>(c)</code>, <code>*</code> or <code>$</code>.
+ * <p>
+ * The bad character shift table is indexed by the low byte of the characters.
+ * The characters that share a low byte get the smallest of their shifts, which
+ * keeps the table small and the search correct for any text.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class HorspoolMatcher implements NoticeMatcher {
+
+    private static final int TABLE_SIZE = 256;
+
+    private final char[] pattern;
+
+    private final int[] shifts = new int[TABLE_SIZE];
+
+    /**
+     * @param notice
+     *            - the notice that will be searched
+     */
+    public HorspoolMatcher(String notice) {
+        this.pattern = notice.toCharArray();
+
+        int length = this.pattern.length;
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            this.shifts[i] = length;
+        }
+        for (int i = 0; i < length - 1; i++) {
+            this.shifts[this.pattern[i] & 0xFF] = length - 1 - i;
+        }
+    }
+
+    @Override
+    public Match find(CharSequence text, int fromIndex) {
+        int length = this.pattern.length;
+        if (length == 0) {
+            return null;
+        }
+
+        int last = length - 1;
+        int index = Math.max(fromIndex, 0);
+        int limit = text.length() - length;
+        while (index <= limit) {
+            int j = last;
+            while (j >= 0 && text.charAt(index + j) == this.pattern[j]) {
+                j--;
+            }
+            if (j < 0) {
+                return new Match(index, index + length, 0);
+            }
+            index += this.shifts[text.charAt(index + last) & 0xFF];
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getNoticeCount() {
+        return 1;
+    }
+
+    @Override
+    public int getMaxLength() {
+        return this.pattern.length;
+    }
+}
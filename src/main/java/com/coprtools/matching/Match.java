@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.matching;
+
+/**
+ * A single occurrence of a notice in a text.
+ *
+ * @author Dimcho Nedev
+ */
+public class Match {
+    private final int start;
+
+    private final int end;
+
+    private final int noticeIndex;
+
+    public Match(int start, int end, int noticeIndex) {
+        this.start = start;
+        this.end = end;
+        this.noticeIndex = noticeIndex;
+    }
+
+    /**
+     * @return the index of the first character of the match
+     */
+    public int getStart() {
+        return this.start;
+    }
+
+    /**
+     * @return the index after the last character of the match
+     */
+    public int getEnd() {
+        return this.end;
+    }
+
+    /**
+     * @return the index of the matched notice in the matcher's notices
+     */
+    public int getNoticeIndex() {
+        return this.noticeIndex;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.matching;
+
+/**
+ * A precompiled literal matcher for notices. The matchers are immutable and
+ * may be shared between threads.
+ *
+ * @author Dimcho Nedev
+ */
+public interface NoticeMatcher {
+    /**
+     * Finds the first occurrence of a notice in the text.
+     *
+     * @param text
+     *            - the text that will be searched
+     * @param fromIndex
+     *            - the index from which to start the search
+     * @return the first {@link Match match} at or after the given index or
+     *         <code>null</code> if there is no match
+     */
+    Match find(CharSequence text, int fromIndex);
+
+    /**
+     * @return the number of the notices searched by the matcher
+     */
+    int getNoticeCount();
+
+    /**
+     * @return the length of the longest notice searched by the matcher
+     */
+    int getMaxLength();
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.metrics;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import com.coprtools.util.ContentWriter;
+import com.coprtools.util.FileManipulator;
+
+/**
+ * A {@link FileManipulator} decorator that times every read and write and
+ * counts the bytes. The sizes are taken from the file system, so they are in
+ * bytes regardless of the encoding. The partial reads of the prefix and suffix
+ * checks are counted as reported by the decorated manipulator.
+ *
+ * @author Dimcho Nedev
+ */
+public class InstrumentedManipulator implements FileManipulator {
+
+    private final FileManipulator manipulator;
+
+    private final Metrics metrics;
+
+    /**
+     * @param manipulator
+     *            - the decorated manipulator
+     * @param metrics
+     *            - the metrics
+     */
+    public InstrumentedManipulator(FileManipulator manipulator, Metrics metrics) {
+        this.manipulator = manipulator;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String readFromFile(File file) throws FileNotFoundException, IOException {
+        long start = System.nanoTime();
+        String source = this.manipulator.readFromFile(file);
+        this.metrics.read(System.nanoTime() - start, file.length());
+        return source;
+    }
+
+    @Override
+    public String readFromBytes(byte[] content) throws IOException {
+        return this.manipulator.readFromBytes(content);
+    }
+
+    @Override
+    public CharSequence readContent(File file) throws IOException {
+        long start = System.nanoTime();
+        CharSequence source = this.manipulator.readContent(file);
+        this.metrics.read(System.nanoTime() - start, file.length());
+        return source;
+    }
+
+    @Override
+    public boolean preservesBytes() {
+        return this.manipulator.preservesBytes();
+    }
+
+    @Override
+    public String toContentText(String text) {
+        return this.manipulator.toContentText(text);
+    }
+
+    @Override
+    public void writeToFile(File file, String source) throws IOException {
+        long length = file.length();
+        long start = System.nanoTime();
+        this.manipulator.writeToFile(file, source);
+        this.metrics.written(System.nanoTime() - start, file.length() - length, true);
+    }
+
+    @Override
+    public void overrideFile(File file, String newSource) throws IOException {
+        long start = System.nanoTime();
+        this.manipulator.overrideFile(file, newSource);
+        this.metrics.written(System.nanoTime() - start, file.length(), true);
+    }
+
+    @Override
+    public void writeParts(File file, CharSequence... parts) throws IOException {
+        long start = System.nanoTime();
+        this.manipulator.writeParts(file, parts);
+        this.metrics.written(System.nanoTime() - start, file.length(), true);
+    }
+
+    @Override
+    public void writeContent(File file, ContentWriter writer) throws IOException {
+        long start = System.nanoTime();
+        this.manipulator.writeContent(file, writer);
+        this.metrics.written(System.nanoTime() - start, file.length(), true);
+    }
+
+    @Override
+    public void copyFile(File source, File destination, boolean link) throws IOException {
+        long start = System.nanoTime();
+        this.manipulator.copyFile(source, destination, link);
+        this.metrics.written(System.nanoTime() - start, link ? 0 : destination.length(), false);
+    }
+
+    @Override
+    public boolean startsWith(File file, String prefix) throws IOException {
+        long size = file.length();
+        long start = System.nanoTime();
+        boolean result = this.manipulator.startsWith(file, prefix);
+        this.metrics.read(System.nanoTime() - start, this.manipulator.getPrefixReadLength(size, prefix));
+        return result;
+    }
+
+    @Override
+    public boolean endsWith(File file, String suffix) throws IOException {
+        long size = file.length();
+        long start = System.nanoTime();
+        boolean result = this.manipulator.endsWith(file, suffix);
+        this.metrics.read(System.nanoTime() - start, this.manipulator.getSuffixReadLength(size, suffix));
+        return result;
+    }
+
+    @Override
+    public long getPrefixReadLength(long size, String prefix) {
+        return this.manipulator.getPrefixReadLength(size, prefix);
+    }
+
+    @Override
+    public long getSuffixReadLength(long size, String suffix) {
+        return this.manipulator.getSuffixReadLength(size, suffix);
+    }
+}
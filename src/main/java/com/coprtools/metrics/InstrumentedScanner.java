@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.metrics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import com.coprtools.scanner.FileScanner;
+import com.coprtools.scanner.ScanFilter;
+import com.coprtools.scanner.ScanListener;
+
+/**
+ * A {@link FileScanner} decorator that counts the found files and times the
+ * walk. The walk time of a file is the time a thread spends in the scanner
+ * since it has returned from the previous file, or since the scan has started
+ * for the first file of the thread, i.e. listing the directories and reading
+ * the attributes.
+ *
+ * @author Dimcho Nedev
+ */
+public class InstrumentedScanner implements FileScanner {
+
+    private final FileScanner scanner;
+
+    private final Metrics metrics;
+
+    /**
+     * @param scanner
+     *            - the decorated scanner
+     * @param metrics
+     *            - the metrics
+     */
+    public InstrumentedScanner(FileScanner scanner, Metrics metrics) {
+        this.scanner = scanner;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void scan(Path root, ScanFilter filter, ScanListener listener) throws IOException {
+        // the last return from the listener, per thread and per scan
+        ThreadLocal<Long> lastReturn = new ThreadLocal<>();
+        long start = System.nanoTime();
+
+        ScanFilter countingFilter = new ScanFilter() {
+            @Override
+            public boolean acceptDirectory(Path directory, BasicFileAttributes attributes) {
+                return filter.acceptDirectory(directory, attributes);
+            }
+
+            @Override
+            public boolean acceptFile(Path file, BasicFileAttributes attributes) {
+                metrics.fileScanned();
+                return filter.acceptFile(file, attributes);
+            }
+        };
+
+        ScanListener timingListener = new ScanListener() {
+            @Override
+            public void onDirectory(Path directory, BasicFileAttributes attributes) {
+                listener.onDirectory(directory, attributes);
+            }
+
+            @Override
+            public void onFile(Path file, BasicFileAttributes attributes) {
+                Long last = lastReturn.get();
+                metrics.fileWalked(System.nanoTime() - (last != null ? last : start));
+
+                try {
+                    listener.onFile(file, attributes);
+                } finally {
+                    lastReturn.set(System.nanoTime());
+                }
+            }
+
+            @Override
+            public void onError(Path path, IOException e) {
+                listener.onError(path, e);
+            }
+        };
+
+        this.scanner.scan(root, countingFilter, timingListener);
+    }
+}
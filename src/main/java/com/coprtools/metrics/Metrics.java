@@ -0,0 +1,268 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.metrics;
+
+import java.io.File;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.coprtools.commands.ExecutionHook;
+import com.coprtools.commands.ExecutionResult;
+import com.coprtools.constants.UserMessagesConstants;
+import com.coprtools.writer.Writer;
+
+/**
+ * Collects the counters and the latencies of a run. The files are counted and
+ * timed by the {@link InstrumentedScanner scanner} and the
+ * {@link InstrumentedManipulator manipulator} decorators and by the command
+ * itself, since the metrics are also an {@link ExecutionHook}.
+ * <p>
+ * The match phase is the time of a file that is spent outside of the reading
+ * and the writing, i.e. mostly in searching for the notices.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class Metrics implements ExecutionHook {
+
+    /**
+     * The timed phases of the processing.
+     */
+    public enum Phase {
+        /** The whole processing of a file. */
+        FILE,
+        /** The time the scanner spends to find the next file. */
+        WALK,
+        READ,
+        MATCH,
+        WRITE
+    }
+
+    private final LongAdder scanned = new LongAdder();
+
+    private final LongAdder matched = new LongAdder();
+
+    private final LongAdder modified = new LongAdder();
+
+    private final LongAdder skipped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final Map<Phase, LatencyHistogram> latencies = new EnumMap<>(Phase.class);
+
+    /**
+     * The start of the current file and the time spent in I/O for it.
+     */
+    private final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[2]);
+
+    private volatile long elapsedNanos;
+
+    public Metrics() {
+        for (Phase phase : Phase.values()) {
+            this.latencies.put(phase, new LatencyHistogram());
+        }
+    }
+
+    /**
+     * Counts a file found by the scanner, before the filters.
+     */
+    public void fileScanned() {
+        this.scanned.increment();
+    }
+
+    /**
+     * Records the time spent by the scanner to find a file.
+     *
+     * @param nanos
+     *            - the time in nanoseconds
+     */
+    public void fileWalked(long nanos) {
+        this.latencies.get(Phase.WALK).record(nanos);
+    }
+
+    /**
+     * Records a read.
+     *
+     * @param nanos
+     *            - the time in nanoseconds
+     * @param bytes
+     *            - the number of the read bytes
+     */
+    public void read(long nanos, long bytes) {
+        this.latencies.get(Phase.READ).record(nanos);
+        this.bytesRead.add(bytes);
+        this.current.get()[1] += nanos;
+    }
+
+    /**
+     * Records a write.
+     *
+     * @param nanos
+     *            - the time in nanoseconds
+     * @param bytes
+     *            - the number of the written bytes
+     * @param modification
+     *            - whether a processed file was modified, or only copied
+     */
+    public void written(long nanos, long bytes, boolean modification) {
+        this.latencies.get(Phase.WRITE).record(nanos);
+        this.bytesWritten.add(bytes);
+        this.current.get()[1] += nanos;
+        if (modification) {
+            this.modified.increment();
+        }
+    }
+
+    /**
+     * @param elapsedNanos
+     *            - the wall time of the whole run in nanoseconds, including
+     *            the file operations which are still pending when the scan
+     *            returns
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    @Override
+    public void beforeExecute(File file) {
+        long[] current = this.current.get();
+        current[0] = System.nanoTime();
+        current[1] = 0;
+    }
+
+    @Override
+    public void onRead(File file, long nanos, long bytes) {
+        this.read(nanos, bytes);
+    }
+
+    @Override
+    public void afterExecute(File file, ExecutionResult result) {
+        long[] current = this.current.get();
+        long nanos = System.nanoTime() - current[0];
+        this.latencies.get(Phase.FILE).record(nanos);
+        this.latencies.get(Phase.MATCH).record(nanos - current[1]);
+        this.matched.increment();
+
+        switch (result) {
+        case ALREADY_INSERTED:
+        case UP_TO_DATE:
+            this.skipped.increment();
+            break;
+        case FAILED:
+            this.failed.increment();
+            break;
+        default:
+            break;
+        }
+    }
+
+    /**
+     * @param phase
+     *            - the phase
+     * @return the latencies of the phase
+     */
+    public LatencyHistogram getLatency(Phase phase) {
+        return this.latencies.get(phase);
+    }
+
+    public long getScanned() {
+        return this.scanned.sum();
+    }
+
+    public long getMatched() {
+        return this.matched.sum();
+    }
+
+    public long getModified() {
+        return this.modified.sum();
+    }
+
+    public long getSkipped() {
+        return this.skipped.sum();
+    }
+
+    public long getFailed() {
+        return this.failed.sum();
+    }
+
+    public long getBytesRead() {
+        return this.bytesRead.sum();
+    }
+
+    public long getBytesWritten() {
+        return this.bytesWritten.sum();
+    }
+
+    /**
+     * Writes a human readable summary.
+     *
+     * @param writer
+     *            - the writer
+     */
+    public void writeSummary(Writer writer) {
+        long elapsedMillis = this.elapsedNanos / 1_000_000;
+        double seconds = Math.max(this.elapsedNanos, 1) / 1e9;
+
+        writer.writeLine(UserMessagesConstants.METRICS_FILES_MESSAGE,
+                getScanned(), getMatched(), getModified(), getSkipped(), getFailed());
+        writer.writeLine(UserMessagesConstants.METRICS_THROUGHPUT_MESSAGE,
+                getBytesRead(), getBytesWritten(), elapsedMillis, getMatched() / seconds);
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram latency = this.latencies.get(phase);
+            writer.writeLine(UserMessagesConstants.METRICS_LATENCY_MESSAGE, phase.name().toLowerCase(Locale.ROOT),
+                    latency.getCount(), latency.getPercentile(50) / 1e6, latency.getPercentile(99) / 1e6,
+                    latency.getTotal() / 1e6);
+        }
+    }
+
+    /**
+     * @return the metrics as a JSON object, the latencies are in nanoseconds
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"elapsedNanos\":").append(this.elapsedNanos);
+        json.append(",\"files\":{")
+                .append("\"scanned\":").append(getScanned())
+                .append(",\"matched\":").append(getMatched())
+                .append(",\"modified\":").append(getModified())
+                .append(",\"skipped\":").append(getSkipped())
+                .append(",\"failed\":").append(getFailed()).append('}');
+        json.append(",\"bytes\":{")
+                .append("\"read\":").append(getBytesRead())
+                .append(",\"written\":").append(getBytesWritten()).append('}');
+        json.append(",\"latencies\":{");
+        for (Phase phase : Phase.values()) {
+            LatencyHistogram latency = this.latencies.get(phase);
+            if (phase.ordinal() > 0) {
+                json.append(',');
+            }
+            json.append('"').append(phase.name().toLowerCase(Locale.ROOT)).append("\":{")
+                    .append("\"count\":").append(latency.getCount())
+                    .append(",\"total\":").append(latency.getTotal())
+                    .append(",\"p50\":").append(latency.getPercentile(50))
+                    .append(",\"p99\":").append(latency.getPercentile(99)).append('}');
+        }
+
+        return json.append("}}").toString();
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.notice;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A normalized notice of the {@link NoticeRegistry registry}. The encoded
+ * bytes are computed once per charset.
+ *
+ * @author Dimcho Nedev
+ */
+public class Notice {
+    private final String text;
+
+    private final ConcurrentMap<Charset, byte[]> bytes = new ConcurrentHashMap<>();
+
+    Notice(String text) {
+        this.text = text;
+    }
+
+    /**
+     * @return the normalized text of the notice
+     */
+    public String getText() {
+        return this.text;
+    }
+
+    /**
+     * Gets the notice encoded with the given charset. The array is shared, so
+     * it must not be modified.
+     *
+     * @param charset
+     *            - the charset
+     * @return the encoded notice
+     */
+    public byte[] getBytes(Charset charset) {
+        return this.bytes.computeIfAbsent(charset, this.text::getBytes);
+    }
+}
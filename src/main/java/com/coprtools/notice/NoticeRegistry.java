@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.notice;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.coprtools.matching.AhoCorasickMatcher;
+import com.coprtools.matching.HorspoolMatcher;
+import com.coprtools.matching.NoticeMatcher;
+import com.coprtools.util.FileManipulator;
+
+/**
+ * A cache of the notices and their matchers, so the repeated runs with the
+ * same notices (e.g. in the daemon) don't read, normalize, encode and compile
+ * them again. The notice files are keyed by their path and content hash, so a
+ * changed file is loaded again. The least recently used entries are evicted.
+ * <p>
+ * The registry is thread-safe.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class NoticeRegistry {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private static final String HASH_ALGORITHM = "SHA-256";
+
+    private final Map<String, Notice> files;
+
+    private final Map<String, Notice> texts;
+
+    private final Map<List<String>, NoticeMatcher> matchers;
+
+    /**
+     * @param capacity
+     *            - the maximal number of the entries of each kind
+     */
+    public NoticeRegistry(int capacity) {
+        this.files = lruMap(capacity);
+        this.texts = lruMap(capacity);
+        this.matchers = lruMap(capacity);
+    }
+
+    public NoticeRegistry() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Loads a notice file. The file is read once and its content is decoded
+     * with the manipulator and trimmed only when it is not loaded yet or has
+     * changed.
+     *
+     * @param file
+     *            - the notice file
+     * @param manipulator
+     *            - the manipulator which reads and normalizes the notice
+     * @return the notice
+     * @throws FileNotFoundException
+     *             - thrown when the file doesn't exist
+     * @throws IOException
+     *             - thrown when failed to read the file
+     */
+    public Notice load(File file, FileManipulator manipulator) throws FileNotFoundException, IOException {
+        byte[] content;
+        try {
+            content = Files.readAllBytes(file.toPath());
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(file.getPath());
+        }
+
+        // the normalization depends on the manipulator
+        String key = file.getAbsolutePath() + '\0' + manipulator.getClass().getName() + '\0' + hash(content);
+        synchronized (this) {
+            Notice notice = this.files.get(key);
+            if (notice != null) {
+                return notice;
+            }
+        }
+
+        Notice notice = this.register(manipulator.readFromBytes(content).trim());
+        synchronized (this) {
+            this.files.put(key, notice);
+        }
+        return notice;
+    }
+
+    /**
+     * Registers a notice text, e.g. a notice given as a string or a loaded
+     * notice with blank lines.
+     *
+     * @param text
+     *            - the notice text
+     * @return the registered notice with the same text
+     */
+    public synchronized Notice register(String text) {
+        return this.texts.computeIfAbsent(text, Notice::new);
+    }
+
+    /**
+     * Encodes a text. The bytes of the registered notices are cached.
+     *
+     * @param text
+     *            - the text
+     * @param charset
+     *            - the charset
+     * @return the encoded text, which must not be modified
+     */
+    public byte[] encode(String text, Charset charset) {
+        Notice notice;
+        synchronized (this) {
+            notice = this.texts.get(text);
+        }
+
+        return notice != null ? notice.getBytes(charset) : text.getBytes(charset);
+    }
+
+    /**
+     * Gets a precompiled matcher for the given notices. A single notice is
+     * searched with Boyer-Moore-Horspool, a set of notices - with
+     * Aho-Corasick.
+     *
+     * @param notices
+     *            - the notices
+     * @return the matcher
+     */
+    public synchronized NoticeMatcher getMatcher(String... notices) {
+        return this.matchers.computeIfAbsent(Arrays.asList(notices.clone()), key -> {
+            if (notices.length == 1) {
+                return new HorspoolMatcher(notices[0]);
+            }
+
+            return new AhoCorasickMatcher(notices);
+        });
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance(HASH_ALGORITHM).digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static <K, V> Map<K, V> lruMap(int capacity) {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+}
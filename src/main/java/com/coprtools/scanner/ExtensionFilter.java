@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * A {@link ScanFilter} that accepts the files which names end with one of the
+ * given extensions. The extensions are compiled into a trie of their reversed
+ * characters, so the check walks only the last characters of the file name
+ * once, no matter how many extensions are selected.
+ *
+ * @author Dimcho Nedev
+ */
+public class ExtensionFilter implements ScanFilter {
+
+    private final Node root = new Node();
+
+    /**
+     * @param extensions
+     *            - the file extensions (or any other file name suffixes)
+     */
+    public ExtensionFilter(String... extensions) {
+        for (String extension : extensions) {
+            Node node = this.root;
+            for (int i = extension.length() - 1; i >= 0; i--) {
+                node = node.addChild(extension.charAt(i));
+            }
+            node.terminal = true;
+        }
+    }
+
+    @Override
+    public boolean acceptFile(Path file, BasicFileAttributes attributes) {
+        return matches(file.getFileName().toString());
+    }
+
+    /**
+     * Checks whether the file name ends with one of the extensions.
+     *
+     * @param fileName
+     *            - the file name
+     * @return <code>true</code> if the name ends with one of the extensions,
+     *         otherwise - <code>false</code>.
+     */
+    public boolean matches(String fileName) {
+        Node node = this.root;
+        if (node.terminal) {
+            return true;
+        }
+
+        for (int i = fileName.length() - 1; i >= 0; i--) {
+            node = node.getChild(fileName.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.terminal) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * A trie node. The extensions share only a few characters, so the children
+     * are kept in small arrays instead of maps.
+     */
+    private static class Node {
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private boolean terminal;
+
+        Node getChild(char key) {
+            for (int i = 0; i < this.keys.length; i++) {
+                if (this.keys[i] == key) {
+                    return this.children[i];
+                }
+            }
+
+            return null;
+        }
+
+        Node addChild(char key) {
+            Node child = getChild(key);
+            if (child == null) {
+                child = new Node();
+                this.keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+                this.children = Arrays.copyOf(this.children, this.children.length + 1);
+                this.keys[this.keys.length - 1] = key;
+                this.children[this.children.length - 1] = child;
+            }
+
+            return child;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Describes a file tree traversal. The scanner reads the attributes of every
+ * entry once, asks the {@link ScanFilter filter} whether the entry should be
+ * visited and passes the accepted files to a {@link ScanListener listener}.
+ *
+ * @author Dimcho Nedev
+ */
+public interface FileScanner {
+    /**
+     * Scans the file tree starting from the given root.
+     *
+     * @param root
+     *            - the root directory of the scan
+     * @param filter
+     *            - decides which directories and files will be visited
+     * @param listener
+     *            - receives the accepted files and the traversal errors
+     * @throws IOException
+     *             - thrown when the root cannot be read
+     */
+    void scan(Path root, ScanFilter filter, ScanListener listener) throws IOException;
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystemLoopException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A parallel {@link FileScanner} that runs on a {@link ForkJoinPool}. Every
+ * directory is listed by a separate task and the subdirectories are forked, so
+ * the idle workers can steal the pending subtrees. The tasks never wait for
+ * their children, so the thread stacks don't grow with the depth of the tree.
+ * Like {@link TreeWalkScanner}, the symbolic links are followed and the cycles
+ * are reported as errors.
+ * <p>
+ * Note: The listener is called from the worker threads.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class ForkJoinScanner implements FileScanner {
+
+    private final int threads;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * @param threads
+     *            - the number of the worker threads
+     */
+    public ForkJoinScanner(int threads) {
+        this.threads = threads;
+        this.pool = null;
+    }
+
+    /**
+     * Creates a scanner which runs on a shared pool. The pool is not shut
+     * down after the scan.
+     *
+     * @param pool
+     *            - the pool of the worker threads
+     */
+    public ForkJoinScanner(ForkJoinPool pool) {
+        this.threads = pool.getParallelism();
+        this.pool = pool;
+    }
+
+    @Override
+    public void scan(Path root, ScanFilter filter, ScanListener listener) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(root, BasicFileAttributes.class);
+        if (!attributes.isDirectory()) {
+            if (filter.acceptFile(root, attributes)) {
+                listener.onFile(root, attributes);
+            }
+            return;
+        }
+
+        listener.onDirectory(root, attributes);
+
+        DirectoryTask task = new DirectoryTask(null, root, attributes.fileKey(), filter, listener);
+        if (this.pool != null) {
+            this.pool.invoke(task);
+            return;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(this.threads);
+        try {
+            pool.invoke(task);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Lists a single directory, forks a task for every subdirectory and passes
+     * the files to the listener. The parent tasks form the chain of the
+     * ancestor directories, which is used to find the cycles.
+     */
+    private static class DirectoryTask extends CountedCompleter<Void> {
+        private static final long serialVersionUID = -4187632604571838924L;
+
+        private final DirectoryTask parent;
+
+        private final Path directory;
+
+        private final Object key;
+
+        private final ScanFilter filter;
+
+        private final ScanListener listener;
+
+        DirectoryTask(DirectoryTask parent, Path directory, Object key, ScanFilter filter,
+                ScanListener listener) {
+            super(parent);
+            this.parent = parent;
+            this.directory = directory;
+            this.key = key;
+            this.filter = filter;
+            this.listener = listener;
+        }
+
+        @Override
+        public void compute() {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(this.directory)) {
+                for (Path entry : entries) {
+                    visit(entry);
+                }
+            } catch (IOException e) {
+                this.listener.onError(this.directory, e);
+            } catch (DirectoryIteratorException e) {
+                this.listener.onError(this.directory, e.getCause());
+            }
+
+            tryComplete();
+        }
+
+        private void visit(Path entry) {
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+            } catch (IOException e) {
+                this.listener.onError(entry, e);
+                return;
+            }
+
+            if (attributes.isDirectory()) {
+                if (isLoop(entry, attributes.fileKey())) {
+                    this.listener.onError(entry, new FileSystemLoopException(entry.toString()));
+                } else if (this.filter.acceptDirectory(entry, attributes)) {
+                    this.listener.onDirectory(entry, attributes);
+                    addToPendingCount(1);
+                    new DirectoryTask(this, entry, attributes.fileKey(), this.filter, this.listener).fork();
+                }
+            } else if (this.filter.acceptFile(entry, attributes)) {
+                this.listener.onFile(entry, attributes);
+            }
+        }
+
+        /**
+         * Checks whether a directory is this directory or one of its
+         * ancestors, the same way as {@link Files#walkFileTree} does.
+         */
+        private boolean isLoop(Path entry, Object entryKey) {
+            for (DirectoryTask ancestor = this; ancestor != null; ancestor = ancestor.parent) {
+                if (entryKey != null && ancestor.key != null) {
+                    if (entryKey.equals(ancestor.key)) {
+                        return true;
+                    }
+                } else {
+                    try {
+                        if (Files.isSameFile(entry, ancestor.directory)) {
+                            return true;
+                        }
+                    } catch (IOException | SecurityException e) {
+                        // ignore, as the walker does
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.nio.file.FileSystem;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A {@link ScanFilter} based on include and exclude patterns. The patterns are
+ * matched against the path relative to the root directory. The default syntax
+ * is <code>glob</code>, but any syntax supported by
+ * {@link FileSystem#getPathMatcher(String)} may be used with a prefix (for
+ * example <code>regex:.*Test\.java</code>).
+ * <p>
+ * A file is accepted when it matches any of the include patterns (or there are
+ * no include patterns) and none of the exclude patterns. A directory that
+ * matches an exclude pattern is skipped with all of its content.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class GlobFilter implements ScanFilter {
+
+    private static final String GLOB_SYNTAX = "glob:";
+
+    private final Path root;
+
+    private final PathMatcher[] includes;
+
+    private final PathMatcher[] excludes;
+
+    /**
+     * @param root
+     *            - the root directory of the scan
+     * @param includes
+     *            - the include patterns, may be <code>null</code>
+     * @param excludes
+     *            - the exclude patterns, may be <code>null</code>
+     */
+    public GlobFilter(Path root, String[] includes, String[] excludes) {
+        this.root = root;
+        this.includes = compile(root.getFileSystem(), includes);
+        this.excludes = compile(root.getFileSystem(), excludes);
+    }
+
+    @Override
+    public boolean acceptDirectory(Path directory, BasicFileAttributes attributes) {
+        return !matchesAny(this.excludes, this.root.relativize(directory));
+    }
+
+    @Override
+    public boolean acceptFile(Path file, BasicFileAttributes attributes) {
+        Path relativePath = this.root.relativize(file);
+        if (this.includes.length > 0 && !matchesAny(this.includes, relativePath)) {
+            return false;
+        }
+
+        return !matchesAny(this.excludes, relativePath);
+    }
+
+    private static boolean matchesAny(PathMatcher[] matchers, Path path) {
+        for (PathMatcher matcher : matchers) {
+            if (matcher.matches(path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static PathMatcher[] compile(FileSystem fileSystem, String[] patterns) {
+        if (patterns == null) {
+            return new PathMatcher[0];
+        }
+
+        PathMatcher[] matchers = new PathMatcher[patterns.length];
+        for (int i = 0; i < patterns.length; i++) {
+            String pattern = patterns[i];
+            if (pattern.indexOf(':') < 0) {
+                pattern = GLOB_SYNTAX + pattern;
+            }
+            matchers[i] = fileSystem.getPathMatcher(pattern);
+        }
+
+        return matchers;
+    }
+}
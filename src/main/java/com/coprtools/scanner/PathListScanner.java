@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A {@link FileScanner} that visits only the files from a given list instead
+ * of walking the whole tree, e.g. the output of
+ * <code>git diff --name-only</code>. The relative paths are resolved against
+ * the root directory. The missing files (deleted in the diff) and the files
+ * outside of the root directory are skipped. Every directory on the way to a
+ * file must be accepted by the filter, as if the tree was walked.
+ *
+ * @author Dimcho Nedev
+ */
+public class PathListScanner implements FileScanner {
+
+    private final Set<String> paths;
+
+    /**
+     * @param paths
+     *            - the paths of the files
+     */
+    public PathListScanner(Collection<String> paths) {
+        this.paths = new LinkedHashSet<>(paths);
+    }
+
+    /**
+     * Reads the paths, one per line. The blank lines are ignored.
+     *
+     * @param reader
+     *            - the source of the paths
+     * @return the scanner
+     * @throws IOException
+     *             - thrown when failed to read the paths
+     */
+    public static PathListScanner read(Reader reader) throws IOException {
+        Set<String> paths = new LinkedHashSet<>();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            line = line.trim();
+            if (!line.isEmpty()) {
+                paths.add(line);
+            }
+        }
+
+        return new PathListScanner(paths);
+    }
+
+    @Override
+    public void scan(Path root, ScanFilter filter, ScanListener listener) throws IOException {
+        Path absoluteRoot = root.toAbsolutePath().normalize();
+        Map<Path, Boolean> directories = new HashMap<>();
+        listener.onDirectory(root, Files.readAttributes(root, BasicFileAttributes.class));
+
+        for (String path : this.paths) {
+            Path absolute = absoluteRoot.resolve(path).normalize();
+            if (!absolute.startsWith(absoluteRoot) || absolute.equals(absoluteRoot)) {
+                continue;
+            }
+
+            Path relative = absoluteRoot.relativize(absolute);
+            Path file = root.resolve(relative);
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attributes.isRegularFile() && acceptParents(root, relative, filter, listener, directories)
+                        && filter.acceptFile(file, attributes)) {
+                    listener.onFile(file, attributes);
+                }
+            } catch (NoSuchFileException e) {
+                // deleted in the meantime, nothing to do here
+            } catch (IOException e) {
+                listener.onError(file, e);
+            }
+        }
+    }
+
+    /**
+     * Checks the directories on the way to a file. Every directory is checked
+     * and passed to the listener only once.
+     */
+    private static boolean acceptParents(Path root, Path relative, ScanFilter filter, ScanListener listener,
+            Map<Path, Boolean> directories) throws IOException {
+        for (int i = 1; i < relative.getNameCount(); i++) {
+            Path directory = root.resolve(relative.subpath(0, i));
+            Boolean accepted = directories.get(directory);
+            if (accepted == null) {
+                BasicFileAttributes attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+                accepted = filter.acceptDirectory(directory, attributes);
+                if (accepted) {
+                    listener.onDirectory(directory, attributes);
+                }
+                directories.put(directory, accepted);
+            }
+
+            if (!accepted) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A filtering hook for the {@link FileScanner scanners}. The attributes are
+ * already read by the scanner, so the filters don't need to touch the file
+ * system.
+ *
+ * @author Dimcho Nedev
+ */
+public interface ScanFilter {
+    /**
+     * Decides whether a directory should be entered. The directories that are
+     * not accepted are skipped with all of their content.
+     *
+     * @param directory
+     *            - the directory
+     * @param attributes
+     *            - the directory attributes
+     * @return <code>true</code> if the directory should be visited, otherwise
+     *         - <code>false</code>.
+     */
+    default boolean acceptDirectory(Path directory, BasicFileAttributes attributes) {
+        return true;
+    }
+
+    /**
+     * Decides whether a file should be passed to the {@link ScanListener}.
+     *
+     * @param file
+     *            - the file
+     * @param attributes
+     *            - the file attributes
+     * @return <code>true</code> if the file is accepted, otherwise -
+     *         <code>false</code>.
+     */
+    boolean acceptFile(Path file, BasicFileAttributes attributes);
+
+    /**
+     * Combines this filter with another one. An entry is accepted only when
+     * both filters accept it.
+     *
+     * @param other
+     *            - the other filter
+     * @return the combined filter
+     */
+    default ScanFilter and(ScanFilter other) {
+        ScanFilter self = this;
+        return new ScanFilter() {
+            @Override
+            public boolean acceptDirectory(Path directory, BasicFileAttributes attributes) {
+                return self.acceptDirectory(directory, attributes) && other.acceptDirectory(directory, attributes);
+            }
+
+            @Override
+            public boolean acceptFile(Path file, BasicFileAttributes attributes) {
+                return self.acceptFile(file, attributes) && other.acceptFile(file, attributes);
+            }
+        };
+    }
+
+    /**
+     * Creates a filter that accepts all entries.
+     *
+     * @return a filter that accepts everything
+     */
+    static ScanFilter acceptAll() {
+        return (file, attributes) -> true;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.scanner;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Receives the files found by a {@link FileScanner}. The parallel scanners may
+ * call the listener from many threads at the same time.
+ *
+ * @author Dimcho Nedev
+ */
+public interface ScanListener {
+    /**
+     * Called for every accepted directory, including the root, before any of
+     * its files. Does nothing by default.
+     *
+     * @param directory
+     *            - the directory
+     * @param attributes
+     *            - the directory attributes
+     */
+    default void onDirectory(Path directory, BasicFileAttributes attributes) {
+    }
+
+    /**
+     * Called for every accepted file.
+     *
+     * @param file
+     *            - the file
+     * @param attributes
+     *            - the file attributes
+     */
+    void onFile(Path file, BasicFileAttributes attributes);
+
+    /**
+     * Called when a file or a directory cannot be read.
+     *
+     * @param path
+     *            - the path of the entry
+     * @param e
+     *            - the cause
+     */
+    void onError(Path path, IOException e);
+}
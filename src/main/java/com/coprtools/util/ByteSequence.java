@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CharSequence} view of bytes, every byte is one ISO-8859-1
+ * character. Nothing is decoded or copied, so the view of a memory-mapped file
+ * doesn't take heap space. The sub-sequences are views of the same bytes.
+ *
+ * @author Dimcho Nedev
+ */
+public final class ByteSequence implements CharSequence {
+
+    private final ByteBuffer buffer;
+
+    private final int offset;
+
+    private final int length;
+
+    /**
+     * @param buffer
+     *            - the bytes from the position to the limit of the buffer
+     */
+    public ByteSequence(ByteBuffer buffer) {
+        this(buffer, buffer.position(), buffer.remaining());
+    }
+
+    private ByteSequence(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException(String.valueOf(index));
+        }
+
+        return (char) (this.buffer.get(this.offset + index) & 0xFF);
+    }
+
+    @Override
+    public ByteSequence subSequence(int start, int end) {
+        if (start < 0 || end > this.length || start > end) {
+            throw new IndexOutOfBoundsException(start + ", " + end);
+        }
+
+        return new ByteSequence(this.buffer, this.offset + start, end - start);
+    }
+
+    /**
+     * @return a new buffer with the bytes of this sequence, sharing the content
+     */
+    public ByteBuffer toByteBuffer() {
+        ByteBuffer bytes = this.buffer.duplicate();
+        bytes.limit(this.offset + this.length).position(this.offset);
+        return bytes.slice();
+    }
+
+    /**
+     * Copies the bytes to a string. Avoid it for the large sequences.
+     */
+    @Override
+    public String toString() {
+        byte[] bytes = new byte[this.length];
+        toByteBuffer().get(bytes);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import com.coprtools.notice.NoticeRegistry;
+
+/**
+ * A {@link FileManipulator} that keeps the original bytes of the files. The
+ * whole file is read at once and decoded with ISO-8859-1, which maps every byte
+ * to exactly one character. No lines are split, no line separators are
+ * replaced and no white spaces are trimmed, so the text written back produces
+ * the very same bytes, whatever the real encoding of the file is.
+ * <p>
+ * The manipulator may also trim the files as {@link SourceManipulator} does,
+ * e.g. for the streaming commands, which need the bytes but must not change
+ * the result. Then only the line separators are kept.
+ * </p>
+ * <p>
+ * Note: The notices should be read through the same manipulator, so they are
+ * compared with the file content in the same byte-to-character mapping.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class ByteSourceManipulator extends SourceManipulator {
+
+    private final boolean preserve;
+
+    public ByteSourceManipulator() {
+        this(null);
+    }
+
+    /**
+     * @param noticeRegistry
+     *            - the registry which caches the encoded notices, may be
+     *            <code>null</code>
+     */
+    public ByteSourceManipulator(NoticeRegistry noticeRegistry) {
+        this(noticeRegistry, true);
+    }
+
+    /**
+     * @param noticeRegistry
+     *            - the registry which caches the encoded notices, may be
+     *            <code>null</code>
+     * @param preserve
+     *            - whether to keep the white spaces at the both ends of the
+     *            files, otherwise they are trimmed
+     */
+    public ByteSourceManipulator(NoticeRegistry noticeRegistry, boolean preserve) {
+        super(noticeRegistry);
+        this.preserve = preserve;
+    }
+
+    /**
+     * Reads the whole file content as it is.
+     *
+     * @param file
+     *            - the given source file
+     * @return String, the source file content
+     */
+    @Override
+    public String readFromFile(File file) throws IOException {
+        return this.readFromBytes(Files.readAllBytes(file.toPath()));
+    }
+
+    @Override
+    public String readFromBytes(byte[] content) {
+        String source = new String(content, getCharset());
+        return this.preserve ? source : source.trim();
+    }
+
+    /**
+     * Appends the given text to the end of the file.
+     *
+     * @param file
+     *            - the given source file
+     * @param notice
+     *            - the copyright notice
+     * @throws IOException
+     *             - thrown when failed to write a notice to file
+     */
+    @Override
+    public void writeToFile(File file, String notice) throws IOException {
+        Files.write(file.toPath(), notice.getBytes(getCharset()),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Overrides the original file content with the new source. The new source
+     * is written as it is, without trimming, unless the white spaces are not
+     * preserved.
+     *
+     * @param file
+     *            - the original source file with the old source
+     * @param newSource
+     *            - the new source with copyright notice
+     * @throws IOException
+     *             - thrown when failed to override a file
+     */
+    @Override
+    public void overrideFile(File file, String newSource) throws IOException {
+        String source = this.preserve ? newSource : newSource.trim();
+        this.writeAtomically(file.toPath(), ByteBuffer.wrap(source.getBytes(getCharset())));
+    }
+
+    /**
+     * Encodes the text with the charset of the source files, the platform
+     * charset as with {@link SourceManipulator}, and maps the bytes to
+     * characters as the files are read. E.g. a UTF-8 encoded &copy; becomes
+     * two characters, one for each byte.
+     *
+     * @param text
+     *            - the text
+     * @return the text as it would be read from a file
+     */
+    @Override
+    public String toContentText(String text) {
+        return new String(text.getBytes(Charset.defaultCharset()), getCharset());
+    }
+
+    @Override
+    public boolean preservesBytes() {
+        return this.preserve;
+    }
+
+    @Override
+    protected Charset getCharset() {
+        return StandardCharsets.ISO_8859_1;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.util;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes the new content of a file, see
+ * {@link FileManipulator#writeContent(java.io.File, ContentWriter)}.
+ *
+ * @author Dimcho Nedev
+ */
+@FunctionalInterface
+public interface ContentWriter {
+    /**
+     * Writes the content to the channel.
+     *
+     * @param channel
+     *            - the channel of the new file
+     * @throws IOException
+     *             - thrown when failed to write the content
+     */
+    void writeTo(FileChannel channel) throws IOException;
+}
@@ -28,9 +28,157 @@ import java.io.IOException;
 public interface FileManipulator {
     String readFromFile(File file) throws FileNotFoundException, IOException;
 
+    /**
+     * Decodes the already read content of a file the same way as
+     * {@link #readFromFile(File)} does.
+     *
+     * @param content
+     *            - the file content
+     * @return the source
+     * @throws IOException
+     *             - thrown when failed to decode the content
+     */
+    String readFromBytes(byte[] content) throws IOException;
+
+    /**
+     * Reads the file content for searching and splicing. The content may be a
+     * view of the file instead of a copy. Reads the whole file as
+     * {@link #readFromFile(File)} by default.
+     *
+     * @param file
+     *            - the given source file
+     * @return the content
+     * @throws IOException
+     *             - thrown when failed to read the file
+     */
+    default CharSequence readContent(File file) throws IOException {
+        return readFromFile(file);
+    }
+
+    /**
+     * Whether the files are read and written byte for byte, without
+     * normalizing the line separators and trimming the white spaces. Then the
+     * commands don't trim the new content either. <code>false</code> by
+     * default.
+     *
+     * @return <code>true</code> if the original bytes are kept
+     */
+    default boolean preservesBytes() {
+        return false;
+    }
+
+    /**
+     * Converts a text that is not read from a file, e.g. a notice given on the
+     * command line, to the characters in which this manipulator reads the
+     * files. Returns the text as it is by default.
+     *
+     * @param text
+     *            - the text
+     * @return the text as it would be read from a file
+     */
+    default String toContentText(String text) {
+        return text;
+    }
+
     void writeToFile(File file, String source) throws IOException;
 
     void overrideFile(File file, String newSource) throws IOException;
 
-    void copyFolder(File sourceFolder, File destinationFolder) throws IOException;
+    /**
+     * Overrides the file content with the given parts written one after
+     * another. The parts are not concatenated in memory and are written as
+     * they are, without trimming.
+     *
+     * @param file
+     *            - the file that will be overridden
+     * @param parts
+     *            - the parts of the new content
+     * @throws IOException
+     *             - thrown when failed to override the file
+     */
+    void writeParts(File file, CharSequence... parts) throws IOException;
+
+    /**
+     * Overrides the file content with the bytes written by the given writer.
+     * The writer gets a channel, so the content can be transferred from other
+     * files without passing through the heap.
+     *
+     * @param file
+     *            - the file that will be overridden
+     * @param writer
+     *            - the writer of the new content
+     * @throws IOException
+     *             - thrown when failed to override the file
+     */
+    void writeContent(File file, ContentWriter writer) throws IOException;
+
+    /**
+     * Copies a file with its attributes. An existing destination file with
+     * the same size and modification time is left as it is.
+     *
+     * @param source
+     *            - the source file
+     * @param destination
+     *            - the destination file, its folder must exist
+     * @param link
+     *            - whether to create a hard link instead of a copy when the
+     *            file system allows it
+     * @throws IOException
+     *             - thrown when failed to copy the file
+     */
+    void copyFile(File source, File destination, boolean link) throws IOException;
+
+    /**
+     * Checks whether the file content starts with the given prefix. Only the
+     * first bytes of the file are read.
+     *
+     * @param file
+     *            - the given source file
+     * @param prefix
+     *            - the expected prefix
+     * @return <code>true</code> if the raw file content starts with the prefix,
+     *         otherwise - <code>false</code>.
+     * @throws IOException
+     *             - thrown when failed to read the file
+     */
+    boolean startsWith(File file, String prefix) throws IOException;
+
+    /**
+     * Checks whether the file content ends with the given suffix, ignoring a
+     * few trailing white spaces. Only the last bytes of the file are read.
+     *
+     * @param file
+     *            - the given source file
+     * @param suffix
+     *            - the expected suffix
+     * @return <code>true</code> if the raw file content ends with the suffix,
+     *         otherwise - <code>false</code>.
+     * @throws IOException
+     *             - thrown when failed to read the file
+     */
+    boolean endsWith(File file, String suffix) throws IOException;
+
+    /**
+     * Gets the number of the bytes which {@link #startsWith(File, String)}
+     * reads from a file of the given size.
+     *
+     * @param size
+     *            - the file size
+     * @param prefix
+     *            - the expected prefix
+     * @return the number of the read bytes
+     */
+    long getPrefixReadLength(long size, String prefix);
+
+    /**
+     * Gets the number of the bytes which {@link #endsWith(File, String)}
+     * reads from a file of the given size.
+     *
+     * @param size
+     *            - the file size
+     * @param suffix
+     *            - the expected suffix
+     * @return the number of the read bytes
+     */
+    long getSuffixReadLength(long size, String suffix);
 }
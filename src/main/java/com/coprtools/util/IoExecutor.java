@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.util;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import com.coprtools.constants.InserterConstants;
+
+/**
+ * Executes the file operations on separate threads, so many of them can wait
+ * for a slow file system (e.g. a network share) at the same time. On Java 21+
+ * every operation runs on its own virtual thread, on the older versions - on
+ * a bounded pool of platform threads.
+ * <p>
+ * A semaphore limits the number of the operations in flight and hence the
+ * number of the open files. When the limit is reached {@link #execute} blocks
+ * the caller, e.g. the scanner, until an operation is completed.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class IoExecutor implements Closeable {
+
+    private final ExecutorService executor;
+
+    private final boolean virtual;
+
+    private final int maxOpenFiles;
+
+    private final Semaphore permits;
+
+    /**
+     * @param maxOpenFiles
+     *            - the maximum number of the operations in flight
+     */
+    public IoExecutor(int maxOpenFiles) {
+        if (maxOpenFiles < 1) {
+            throw new IllegalArgumentException("The number of the open files must be positive: " + maxOpenFiles);
+        }
+
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        this.virtual = virtualExecutor != null;
+        this.executor = this.virtual ? virtualExecutor
+                : Executors.newFixedThreadPool(Math.min(maxOpenFiles, InserterConstants.MAX_PLATFORM_IO_THREADS));
+        this.maxOpenFiles = maxOpenFiles;
+        this.permits = new Semaphore(maxOpenFiles);
+    }
+
+    /**
+     * Executes an operation asynchronously. Blocks while the maximum number of
+     * the operations are in flight.
+     *
+     * @param operation
+     *            - the operation
+     */
+    public void execute(Runnable operation) {
+        this.permits.acquireUninterruptibly();
+        try {
+            this.executor.execute(() -> {
+                try {
+                    operation.run();
+                } finally {
+                    this.permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            this.permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until all of the executed operations are completed.
+     */
+    public void awaitCompletion() {
+        this.permits.acquireUninterruptibly(this.maxOpenFiles);
+        this.permits.release(this.maxOpenFiles);
+    }
+
+    /**
+     * @return <code>true</code> if the operations run on virtual threads
+     */
+    public boolean isVirtual() {
+        return this.virtual;
+    }
+
+    /**
+     * Waits for the executed operations and releases the threads.
+     */
+    @Override
+    public void close() {
+        awaitCompletion();
+        this.executor.shutdown();
+    }
+
+    /**
+     * Creates an executor that starts a new virtual thread for every task. The
+     * sources are compiled for Java 8, so the factory method is looked up at
+     * runtime.
+     *
+     * @return the executor or <code>null</code> if the virtual threads are not
+     *         supported
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+
+import com.coprtools.notice.NoticeRegistry;
+
+/**
+ * A {@link ByteSourceManipulator} that memory-maps the files above a size
+ * threshold instead of reading them to the heap. The content of a mapped file
+ * is a {@link ByteSequence} view, the notices are searched directly in the
+ * mapped bytes and the unchanged parts are written from the mapping to the
+ * new file. So the heap usage doesn't depend on the file size.
+ * <p>
+ * Note: The new content is written to a temporary file which replaces the
+ * mapped one. Some systems (e.g. Windows) don't allow to replace a file while
+ * it is mapped.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class MappedSourceManipulator extends ByteSourceManipulator {
+
+    private final long threshold;
+
+    /**
+     * @param threshold
+     *            - the minimal size in bytes of the mapped files
+     */
+    public MappedSourceManipulator(long threshold) {
+        this(threshold, null);
+    }
+
+    /**
+     * @param threshold
+     *            - the minimal size in bytes of the mapped files
+     * @param noticeRegistry
+     *            - the registry which caches the encoded notices, may be
+     *            <code>null</code>
+     */
+    public MappedSourceManipulator(long threshold, NoticeRegistry noticeRegistry) {
+        super(noticeRegistry);
+        this.threshold = threshold;
+    }
+
+    /**
+     * Reads the file content. The files above the threshold are mapped.
+     *
+     * @param file
+     *            - the given source file
+     * @return the content
+     * @throws IOException
+     *             - thrown when failed to read or map the file
+     */
+    @Override
+    public CharSequence readContent(File file) throws IOException {
+        long size = file.length();
+        if (size < this.threshold) {
+            return readFromFile(file);
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("The file is too large to be mapped: " + file.getPath());
+        }
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            return new ByteSequence(channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        }
+    }
+
+    /**
+     * Overrides the file content with the given parts. The mapped parts are
+     * written as they are, the others are encoded.
+     *
+     * @param file
+     *            - the file that will be overridden
+     * @param parts
+     *            - the parts of the new content
+     * @throws IOException
+     *             - thrown when failed to override the file
+     */
+    @Override
+    public void writeParts(File file, CharSequence... parts) throws IOException {
+        Charset charset = getCharset();
+        ByteBuffer[] buffers = new ByteBuffer[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            if (parts[i] instanceof ByteSequence) {
+                buffers[i] = ((ByteSequence) parts[i]).toByteBuffer();
+            } else {
+                buffers[i] = charset.encode(CharBuffer.wrap(parts[i]));
+            }
+        }
+
+        this.writeAtomically(file.toPath(), buffers);
+    }
+}
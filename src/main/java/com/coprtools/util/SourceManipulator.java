@@ -18,16 +18,30 @@ package com.coprtools.util;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Writer;
-
-import org.apache.commons.io.FileUtils;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ThreadLocalRandom;
 
 import com.coprtools.constants.InserterConstants;
+import com.coprtools.notice.NoticeRegistry;
 
 /**
  * Utility class that can manipulate with any kinds of source files.
@@ -35,6 +49,32 @@ import com.coprtools.constants.InserterConstants;
  * @author Dimcho Nedev
  */
 public class SourceManipulator implements FileManipulator {
+    /**
+     * The temporary files are hidden and never match the selected extensions.
+     */
+    private static final String TEMP_FILE_FORMAT = ".%s.%x.tmp";
+
+    /**
+     * The maximal number of the trailing white spaces after a suffix, e.g. a
+     * new line added by an editor after the notice.
+     */
+    private static final int TRAILING_SPACES_LIMIT = 64;
+
+    private final NoticeRegistry noticeRegistry;
+
+    public SourceManipulator() {
+        this(null);
+    }
+
+    /**
+     * @param noticeRegistry
+     *            - the registry which caches the encoded notices, may be
+     *            <code>null</code>
+     */
+    public SourceManipulator(NoticeRegistry noticeRegistry) {
+        this.noticeRegistry = noticeRegistry;
+    }
+
     /**
      * Reads the source from a file.
      *
@@ -44,20 +84,33 @@ public class SourceManipulator implements FileManipulator {
      */
     @Override
     public String readFromFile(File file) throws FileNotFoundException, IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            return readSource(reader);
+        }
+    }
+
+    @Override
+    public String readFromBytes(byte[] content) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(content), Charset.defaultCharset()))) {
+            return readSource(reader);
+        }
+    }
+
+    /**
+     * Reads the lines, joins them with the line separator of the platform and
+     * trims the result.
+     */
+    private static String readSource(BufferedReader reader) throws IOException {
         StringBuilder sourceBuilder = new StringBuilder();
         String line = InserterConstants.EMPTY_STRING;
-        String source = null;
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            while ((line = reader.readLine()) != null) {
-                sourceBuilder.append(line);
-                sourceBuilder.append(InserterConstants.LINE_SEPARATOR);
-            }
-
-            source = sourceBuilder.toString().trim();
+        while ((line = reader.readLine()) != null) {
+            sourceBuilder.append(line);
+            sourceBuilder.append(InserterConstants.LINE_SEPARATOR);
         }
 
-        return source;
+        return sourceBuilder.toString().trim();
     }
 
     /**
@@ -82,8 +135,9 @@ public class SourceManipulator implements FileManipulator {
      * Overrides the original source file content with a new source (with
      * copyright notice).
      * <p>
-     * Note: The original file will be deleted and a new one with the same source
-     * will be created.
+     * Note: The new source is written to a temporary file in the same folder
+     * which then replaces the original file, see
+     * {@link #writeAtomically(Path, ByteBuffer...)}.
      * </p>
      *
      * @param file
@@ -95,27 +149,294 @@ public class SourceManipulator implements FileManipulator {
      */
     @Override
     public void overrideFile(File file, String newSource) throws IOException {
-        file.delete();
-        file = new File(file.getAbsolutePath());
-        file.getParentFile().mkdirs();
-        file.createNewFile();
-
         // TODO: consider whether this trim() is necessary
-        this.writeToFile(file, newSource.trim());
+        this.writeAtomically(file.toPath(), getCharset().encode(newSource.trim()));
+    }
+
+    /**
+     * Overrides the file content with the given parts. Every part is encoded
+     * to a separate buffer and all buffers are written with a single
+     * gathering write, so the new content never exists as one string.
+     *
+     * @param file
+     *            - the file that will be overridden
+     * @param parts
+     *            - the parts of the new content
+     * @throws IOException
+     *             - thrown when failed to override the file
+     */
+    @Override
+    public void writeParts(File file, CharSequence... parts) throws IOException {
+        Charset charset = getCharset();
+        ByteBuffer[] buffers = new ByteBuffer[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            buffers[i] = charset.encode(CharBuffer.wrap(parts[i]));
+        }
+
+        this.writeAtomically(file.toPath(), buffers);
+    }
+
+    /**
+     * Replaces the file content in a crash-safe way. The content is written
+     * once into a new sibling temporary file, which is then renamed over the
+     * target file. If the process dies in the middle, the target file keeps
+     * either its old or its new content.
+     *
+     * @param target
+     *            - the file which content will be replaced
+     * @param content
+     *            - the new content
+     * @throws IOException
+     *             - thrown when failed to write or rename the temporary file
+     */
+    protected void writeAtomically(Path target, ByteBuffer... content) throws IOException {
+        this.writeAtomically(target, channel -> {
+            long remaining = 0;
+            for (ByteBuffer buffer : content) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(content);
+            }
+        });
+    }
+
+    /**
+     * Replaces the file content with the bytes written by the given writer.
+     *
+     * @param file
+     *            - the file that will be overridden
+     * @param writer
+     *            - the writer of the new content
+     * @throws IOException
+     *             - thrown when failed to override the file
+     */
+    @Override
+    public void writeContent(File file, ContentWriter writer) throws IOException {
+        this.writeAtomically(file.toPath(), writer);
     }
 
     /**
-     * Copy a folder with all subfolders and files into another folder.
+     * Replaces the file content in a crash-safe way, see
+     * {@link #writeAtomically(Path, ByteBuffer...)}.
      *
-     * @param sourceFolder
-     *            - the source folder
-     * @param destinationFolder
-     *            - the destination folder
+     * @param target
+     *            - the file which content will be replaced
+     * @param writer
+     *            - the writer of the new content
+     * @throws IOException
+     *             - thrown when failed to write or rename the temporary file
+     */
+    private void writeAtomically(Path target, ContentWriter writer) throws IOException {
+        Path temp = target.resolveSibling(String.format(TEMP_FILE_FORMAT,
+                target.getFileName(), ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE));
+
+        try {
+            try (FileChannel channel = FileChannel.open(temp,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                writer.writeTo(channel);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the file starts with the given prefix. Reads only as many
+     * bytes as the encoded prefix has, so the files that already start with a
+     * notice can be skipped without reading the whole content.
+     * <p>
+     * Note: The bytes are compared as they are, without line separators
+     * normalization. A <code>false</code> result doesn't mean that
+     * {@link #readFromFile(File)} will not start with the prefix.
+     * </p>
+     *
+     * @param file
+     *            - the given source file
+     * @param prefix
+     *            - the expected prefix
+     * @return <code>true</code> if the file starts with the prefix, otherwise
+     *         - <code>false</code>.
+     * @throws IOException
+     *             - thrown when failed to read the file
+     */
+    @Override
+    public boolean startsWith(File file, String prefix) throws IOException {
+        byte[] expected = this.encode(prefix);
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length);
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+        }
+
+        buffer.flip();
+        return buffer.equals(ByteBuffer.wrap(expected));
+    }
+
+    /**
+     * Checks whether the file ends with the given suffix. Reads only the last
+     * bytes of the file with a single positioned read: as many as the encoded
+     * suffix has and a few more for the trailing white spaces, which are
+     * ignored at the end of both the file and the suffix.
+     * <p>
+     * Note: The bytes are compared as they are, see
+     * {@link #startsWith(File, String)}.
+     * </p>
+     *
+     * @param file
+     *            - the given source file
+     * @param suffix
+     *            - the expected suffix
+     * @return <code>true</code> if the file ends with the suffix, otherwise -
+     *         <code>false</code>.
+     * @throws IOException
+     *             - thrown when failed to read the file
+     */
+    @Override
+    public boolean endsWith(File file, String suffix) throws IOException {
+        byte[] expected = this.encode(suffix);
+        int length = trimmedLength(expected);
+        ByteBuffer buffer;
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < length) {
+                return false;
+            }
+
+            long position = Math.max(size - expected.length - TRAILING_SPACES_LIMIT, 0);
+            buffer = ByteBuffer.allocate((int) (size - position));
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    return false;
+                }
+            }
+        }
+
+        int end = buffer.capacity();
+        while (end > length && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+
+        buffer.limit(end).position(end - length);
+        return buffer.equals(ByteBuffer.wrap(expected, 0, length));
+    }
+
+    @Override
+    public long getPrefixReadLength(long size, String prefix) {
+        return Math.min(size, this.encode(prefix).length);
+    }
+
+    @Override
+    public long getSuffixReadLength(long size, String suffix) {
+        byte[] expected = this.encode(suffix);
+        if (size < trimmedLength(expected)) {
+            return 0;
+        }
+
+        return Math.min(size, (long) expected.length + TRAILING_SPACES_LIMIT);
+    }
+
+    /**
+     * @return the length of the text without the trailing white spaces
+     */
+    private static int trimmedLength(byte[] text) {
+        int length = text.length;
+        while (length > 0 && (text[length - 1] & 0xFF) <= ' ') {
+            length--;
+        }
+
+        return length;
+    }
+
+    /**
+     * Encodes a notice with the charset of the files. The encoded notices of
+     * the registry are reused, so they are not encoded for every file.
+     *
+     * @param notice
+     *            - the notice
+     * @return the encoded notice, which must not be modified
+     */
+    private byte[] encode(String notice) {
+        if (this.noticeRegistry == null) {
+            return notice.getBytes(getCharset());
+        }
+
+        return this.noticeRegistry.encode(notice, getCharset());
+    }
+
+    /**
+     * Gets the charset used to encode the text before it is compared with or
+     * written to the files.
+     *
+     * @return the charset of the files
+     */
+    protected Charset getCharset() {
+        return Charset.defaultCharset();
+    }
+
+    /**
+     * Copies a file into another folder. The copy is made by
+     * {@link Files#copy(Path, Path, java.nio.file.CopyOption...)}, which lets
+     * the operating system move the bytes without passing them through the
+     * JVM where it is supported.
+     * <p>
+     * Note: A hard link shares the content with the source file, so a
+     * destination that is linked to the source is always replaced with a real
+     * copy when a copy is requested. Otherwise appending to the destination
+     * would change the source.
+     * </p>
+     *
+     * @param source
+     *            - the source file
+     * @param destination
+     *            - the destination file
+     * @param link
+     *            - whether to create a hard link when the file system allows it
      * @throws IOException
      *            - when an I/O exception of some sort has occurred
      */
     @Override
-    public void copyFolder(File sourceFolder, File destinationFolder) throws IOException {
-        FileUtils.copyDirectory(sourceFolder, destinationFolder);
+    public void copyFile(File source, File destination, boolean link) throws IOException {
+        Path from = source.toPath();
+        Path to = destination.toPath();
+        boolean exists = Files.exists(to, LinkOption.NOFOLLOW_LINKS);
+        boolean linked = exists && Files.isSameFile(from, to);
+
+        if (link) {
+            if (linked) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(to);
+                Files.createLink(to, from);
+                return;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // e.g. another file store, falls back to a copy
+            }
+        } else if (exists && !linked) {
+            BasicFileAttributes sourceAttributes = Files.readAttributes(from, BasicFileAttributes.class);
+            BasicFileAttributes targetAttributes = Files.readAttributes(to, BasicFileAttributes.class);
+            if (sourceAttributes.size() == targetAttributes.size()
+                    && sourceAttributes.lastModifiedTime().equals(targetAttributes.lastModifiedTime())) {
+                return;
+            }
+        }
+
+        if (linked) {
+            Files.delete(to);
+        }
+        Files.copy(from, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
     }
 }
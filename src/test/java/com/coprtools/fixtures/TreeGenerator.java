@@ -0,0 +1,304 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.fixtures;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import com.coprtools.constants.InserterConstants;
+
+/**
+ * Generates reproducible source trees for the scale tests and the benchmarks.
+ * The same seed and settings always produce the same tree: the same
+ * directories, file names, sizes and notices.
+ * <p>
+ * The files are spread over nested directories with the given depth, every
+ * leaf directory holds up to {@link #filesPerDirectory(int)} files. The file
+ * sizes are log-uniformly distributed, so most of the files are small and a
+ * few are large, as in a real repository. The content is sliced from a
+ * single generated block, so even millions of files are created quickly.
+ * </p>
+ *
+ * @author Dimcho Nedev
+ */
+public class TreeGenerator {
+
+    private static final String[] SOURCE_LINES = {
+        "public class Sample {",
+        "    private final java.util.Map<String, Integer> counters = new java.util.HashMap<>();",
+        "",
+        "    // increments the counter and returns the new value",
+        "    public int increment(String key) {",
+        "        return counters.merge(key, 1, Integer::sum);",
+        "    }",
+        "}" };
+
+    private final long seed;
+
+    private int files = 1000;
+
+    private int depth = 3;
+
+    private int filesPerDirectory = 50;
+
+    private int minSize = 256;
+
+    private int maxSize = 64 * 1024;
+
+    private String[] extensions = { ".java", ".cs", ".cpp", ".js", ".txt" };
+
+    private double headerRatio = 0.5;
+
+    /**
+     * @param seed
+     *            - the seed of the random generator
+     */
+    public TreeGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param files
+     *            - the number of the files, 1000 by default
+     * @return this generator
+     */
+    public TreeGenerator files(int files) {
+        this.files = files;
+        return this;
+    }
+
+    /**
+     * @param depth
+     *            - the nesting level of the leaf directories, 3 by default
+     * @return this generator
+     */
+    public TreeGenerator depth(int depth) {
+        this.depth = depth;
+        return this;
+    }
+
+    /**
+     * @param filesPerDirectory
+     *            - the number of the files in a leaf directory, 50 by default
+     * @return this generator
+     */
+    public TreeGenerator filesPerDirectory(int filesPerDirectory) {
+        this.filesPerDirectory = filesPerDirectory;
+        return this;
+    }
+
+    /**
+     * @param minSize
+     *            - the minimal file size in bytes, 256 by default
+     * @param maxSize
+     *            - the maximal file size in bytes, 64 KB by default
+     * @return this generator
+     */
+    public TreeGenerator sizes(int minSize, int maxSize) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    /**
+     * @param extensions
+     *            - the file extensions, picked with equal probability
+     * @return this generator
+     */
+    public TreeGenerator extensions(String... extensions) {
+        this.extensions = extensions;
+        return this;
+    }
+
+    /**
+     * @param headerRatio
+     *            - the part of the files that already start with the notice,
+     *            0.5 by default
+     * @return this generator
+     */
+    public TreeGenerator headerRatio(double headerRatio) {
+        this.headerRatio = headerRatio;
+        return this;
+    }
+
+    /**
+     * Generates the tree.
+     *
+     * @param root
+     *            - the root directory, created if missing
+     * @param notice
+     *            - the notice inserted in some of the files
+     * @return the statistics of the generated tree
+     * @throws IOException
+     *             - thrown when failed to create a file
+     */
+    public Statistics generate(Path root, String notice) throws IOException {
+        Random random = new Random(this.seed);
+        byte[] block = createBlock(this.maxSize);
+        byte[] header = (notice + InserterConstants.LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+        int directories = (this.files + this.filesPerDirectory - 1) / this.filesPerDirectory;
+        int fanout = fanout(directories, this.depth);
+        Statistics statistics = new Statistics(this.extensions);
+
+        Path directory = null;
+        for (int i = 0; i < this.files; i++) {
+            if (i % this.filesPerDirectory == 0) {
+                directory = directoryPath(root, i / this.filesPerDirectory, fanout);
+                Files.createDirectories(directory);
+            }
+
+            int extension = random.nextInt(this.extensions.length);
+            int size = logUniform(random, this.minSize, this.maxSize);
+            boolean withNotice = random.nextDouble() < this.headerRatio;
+
+            Path file = directory.resolve("Source" + i + this.extensions[extension]);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                if (withNotice) {
+                    out.write(header);
+                }
+                out.write(block, 0, size);
+            }
+
+            statistics.add(extension, withNotice, withNotice ? header.length + size : size);
+        }
+
+        return statistics;
+    }
+
+    private Path directoryPath(Path root, int index, int fanout) {
+        String[] names = new String[this.depth];
+        for (int level = this.depth - 1; level >= 0; level--) {
+            names[level] = "dir" + (index % fanout);
+            index /= fanout;
+        }
+
+        Path directory = root;
+        for (String name : names) {
+            directory = directory.resolve(name);
+        }
+
+        return directory;
+    }
+
+    private static int fanout(int directories, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+
+        return Math.max(2, (int) Math.ceil(Math.pow(directories, 1.0 / depth)));
+    }
+
+    private static int logUniform(Random random, int min, int max) {
+        if (min >= max) {
+            return max;
+        }
+
+        double logMin = Math.log(min);
+        double logMax = Math.log(max);
+        return (int) Math.round(Math.exp(logMin + random.nextDouble() * (logMax - logMin)));
+    }
+
+    private static byte[] createBlock(int size) {
+        return source(size).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates the java like source from which the generated files are
+     * sliced, e.g. for the benchmarks of a single file.
+     *
+     * @param size
+     *            - the minimal size of the source in characters
+     * @return the source, ending with a line separator
+     */
+    public static String source(int size) {
+        StringBuilder source = new StringBuilder(size + 128);
+        for (int i = 0; source.length() < size; i++) {
+            source.append(SOURCE_LINES[i % SOURCE_LINES.length]).append(InserterConstants.LINE_SEPARATOR);
+        }
+
+        return source.toString();
+    }
+
+    /**
+     * The statistics of a generated tree.
+     */
+    public static class Statistics {
+        private final String[] extensions;
+
+        private final long[] files;
+
+        private final long[] filesWithNotice;
+
+        private long bytes;
+
+        private Statistics(String[] extensions) {
+            this.extensions = extensions;
+            this.files = new long[extensions.length];
+            this.filesWithNotice = new long[extensions.length];
+        }
+
+        private void add(int extension, boolean withNotice, long size) {
+            this.files[extension]++;
+            if (withNotice) {
+                this.filesWithNotice[extension]++;
+            }
+            this.bytes += size;
+        }
+
+        /**
+         * @param extensions
+         *            - the extensions, all files if none are given
+         * @return the number of the files with the given extensions
+         */
+        public long getFiles(String... extensions) {
+            return count(this.files, extensions);
+        }
+
+        /**
+         * @param extensions
+         *            - the extensions, all files if none are given
+         * @return the number of the files with the given extensions that
+         *         start with the notice
+         */
+        public long getFilesWithNotice(String... extensions) {
+            return count(this.filesWithNotice, extensions);
+        }
+
+        /**
+         * @return the total size of the files in bytes
+         */
+        public long getBytes() {
+            return this.bytes;
+        }
+
+        private long count(long[] counts, String... extensions) {
+            long total = 0;
+            for (int i = 0; i < this.extensions.length; i++) {
+                if (extensions.length == 0 || Arrays.asList(extensions).contains(this.extensions[i])) {
+                    total += counts[i];
+                }
+            }
+
+            return total;
+        }
+    }
+}
@@ -64,6 +64,8 @@ public class BaseCommandTest {
 
     protected File javaFile1, javaFile2, csFile1, csFile2, cppFile1, cppFile21, cppFile22;
 
+    protected CopyrightToolsEngine engine;
+
     protected String javaFile_1_content, javaFile_2_content, csFile_1_content,
         csFile_2_content, cppFile_1_content, cppFile_2_1_content, cppFile_2_2_content;
 
@@ -149,12 +151,15 @@ public class BaseCommandTest {
     }
 
     protected void executeCommand(String command) throws FileNotFoundException, IOException {
-        String args[] = command.split(" ");
+        executeCommand(command.split(" "));
+    }
+
+    protected void executeCommand(String[] args) throws FileNotFoundException, IOException {
         AbstractConsole cli = new ApacheCliConsole(args);
         FileManipulator manipulator = new SourceManipulator();
         com.coprtools.writer.Writer writer = new ConsoleWriter();
         CommandFactory commandFactrory = new CommandFactory();
-        CopyrightToolsEngine  engine = new CopyrightToolsEngine(cli, manipulator, writer, commandFactrory);
+        engine = new CopyrightToolsEngine(cli, manipulator, writer, commandFactrory);
         engine.run();
 
         // Read created files
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.batch.BatchRunner;
+import com.coprtools.constants.UserMessagesConstants;
+import com.coprtools.exceptions.ArgumentParseException;
+import com.coprtools.writer.Writer;
+
+public class BatchTest extends BaseCommandTest {
+
+    @Test
+    public void testTokenize_withQuotesAndComment_shouldSplitTheArguments() throws ArgumentParseException {
+        Assert.assertArrayEquals(new String[] { "insert", "-r", "my dir", "-n", "", "it's" },
+                BatchRunner.tokenize("  insert -r \"my dir\" -n '' \"it's\" # a comment"));
+        Assert.assertEquals(0, BatchRunner.tokenize("# insert -r dir").length);
+    }
+
+    @Test
+    public void testBatch_withTwoJobs_shouldRunThemAndReportTheFailedOne()
+            throws IOException, ArgumentParseException {
+        File jobFile = new File("./temp/jobs.txt");
+        Files.write(jobFile.toPath(), Arrays.asList(
+                "# insert to the first child only",
+                "insert -r rootDir/firstChild -n notice.txt -e .java .cs",
+                "",
+                "check -r 'rootDir/secondChild' -n notice.txt -e .java"));
+
+        List<String> output = new ArrayList<>();
+        boolean succeeded;
+        try (BatchRunner runner = new BatchRunner(2, new ListWriter(output))) {
+            succeeded = runner.run(jobFile);
+        }
+
+        Assert.assertFalse(succeeded);
+        Assert.assertTrue(NOT_INSERTED, readFromFile(javaFile1).startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, readFromFile(csFile1).startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, readFromFile(javaFile2).startsWith(NOTICE));
+        Assert.assertTrue(output.contains("[2] " + UserMessagesConstants.SUCCESFULL_OPERATION_MESSAGE));
+        Assert.assertTrue(output.contains(String.format(UserMessagesConstants.BATCH_FAILED_JOBS_MESSAGE,
+                Arrays.asList(4))));
+        Assert.assertTrue(output.get(output.size() - 3).startsWith("Batch jobs: 2. Succeeded: 1. Failed: 1."));
+        Assert.assertEquals(String.format(UserMessagesConstants.BATCH_FILES_MESSAGE, 3, 2, 1, 1, 0, 0),
+                output.get(output.size() - 2));
+    }
+
+    private static class ListWriter implements Writer {
+        private final List<String> lines;
+
+        ListWriter(List<String> lines) {
+            this.lines = lines;
+        }
+
+        @Override
+        public void writeLine(String line) {
+            this.lines.add(line);
+        }
+
+        @Override
+        public void writeLine(String format, Object... args) {
+            this.writeLine(String.format(format, args));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.commands.CheckCommand;
+import com.coprtools.commands.CommandFactory;
+import com.coprtools.commands.CommandType;
+import com.coprtools.exceptions.InvalidCommandException;
+import com.coprtools.util.SourceManipulator;
+
+public class CheckCommandTest extends BaseCommandTest {
+
+    @Test
+    public void testCheck_withMissingNotices_shouldCountTheFilesAndFail()
+            throws FileNotFoundException, IOException, InvalidCommandException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+
+        CheckCommand command = (CheckCommand) new CommandFactory().create(
+                CommandType.CHECK_BEFORE, NOTICE, new String[] { ".java", ".cs" }, new SourceManipulator(), null);
+        command.executeRecursively(new File("./temp/rootDir"));
+
+        Assert.assertEquals(2, command.getCompliantCount());
+        Assert.assertEquals(2, command.getNonCompliantCount());
+
+        this.executeCommand("check -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs");
+        Assert.assertEquals(1, engine.getExitCode());
+    }
+
+    @Test
+    public void testCheck_withAllNotices_shouldSucceedWithoutWriting()
+            throws FileNotFoundException, IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+        long lastModified = javaFile1.lastModified();
+
+        this.executeCommand("check -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+
+        Assert.assertEquals(0, engine.getExitCode());
+        Assert.assertEquals(lastModified, javaFile1.lastModified());
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+    }
+
+    @Test
+    public void testCheck_withBottomOption_shouldCheckTheEndOfTheFiles()
+            throws FileNotFoundException, IOException {
+        this.executeCommand("insert -b -r ./temp/rootDir -n ./temp/notice.txt -e .cs");
+
+        this.executeCommand("check -b -r ./temp/rootDir -n ./temp/notice.txt -e .cs");
+        Assert.assertEquals(0, engine.getExitCode());
+
+        this.executeCommand("check -r ./temp/rootDir -n ./temp/notice.txt -e .cs");
+        Assert.assertEquals(1, engine.getExitCode());
+    }
+
+    @Test
+    public void testCheck_withOutputDirectory_shouldBeRejectedWithoutWriting()
+            throws FileNotFoundException, IOException {
+        this.executeCommand("check -r ./temp/rootDir -n ./temp/notice.txt -e .java -o ./temp/output");
+
+        Assert.assertTrue(engine.isFailed());
+        Assert.assertFalse(new File("./temp/output").exists());
+
+        this.executeCommand("check -r ./temp/rootDir -n ./temp/notice.txt -e .java --hard-link");
+        Assert.assertTrue(engine.isFailed());
+    }
+}
\ No newline at end of file
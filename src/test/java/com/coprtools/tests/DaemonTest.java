@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.constants.UserMessagesConstants;
+import com.coprtools.daemon.DaemonClient;
+import com.coprtools.daemon.DaemonServer;
+
+public class DaemonTest extends BaseCommandTest {
+
+    private static final File STATE_FILE = new File("./temp/daemon.state");
+
+    @Test
+    public void testDaemon_withRelativePaths_shouldResolveThemAgainstTheClientDirectory()
+            throws IOException, InterruptedException {
+        DaemonServer server = new DaemonServer(STATE_FILE.toPath());
+        server.start();
+        Thread thread = new Thread(server);
+        thread.start();
+
+        DaemonClient client = new DaemonClient(STATE_FILE.toPath());
+        try {
+            Assert.assertTrue(client.ping());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            int exitCode = client.execute(new File("./temp"), "insert -r rootDir -n notice.txt -e .java".split(" "),
+                    null, new PrintStream(out, true), System.err);
+
+            Assert.assertEquals(0, exitCode);
+            Assert.assertTrue(new String(out.toByteArray(), StandardCharsets.UTF_8)
+                    .contains(UserMessagesConstants.SUCCESFULL_OPERATION_MESSAGE));
+            Assert.assertTrue(NOT_INSERTED, readFromFile(javaFile1).startsWith(NOTICE));
+            Assert.assertTrue(NOT_INSERTED, readFromFile(javaFile2).startsWith(NOTICE));
+
+            byte[] paths = "firstChild/cppFile_1.cpp".getBytes(StandardCharsets.UTF_8);
+            exitCode = client.execute(new File("./temp/rootDir"), "check -r . -n ../notice.txt -e .java .cpp --paths -"
+                    .split(" "), new ByteArrayInputStream(paths), new PrintStream(out, true), System.err);
+
+            Assert.assertEquals(1, exitCode);
+        } finally {
+            client.stop();
+            thread.join();
+        }
+
+        Assert.assertFalse(STATE_FILE.exists());
+        Assert.assertFalse(client.ping());
+    }
+
+    @Test
+    public void testDaemon_withInvalidArgumentCount_shouldAnswerWithAnErrorAndKeepRunning()
+            throws IOException, InterruptedException {
+        DaemonServer server = new DaemonServer(STATE_FILE.toPath());
+        server.start();
+        Thread thread = new Thread(server);
+        thread.start();
+
+        DaemonClient client = new DaemonClient(STATE_FILE.toPath());
+        try {
+            List<String> state = Files.readAllLines(STATE_FILE.toPath(), StandardCharsets.US_ASCII);
+            try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+                DataOutputStream request = new DataOutputStream(socket.getOutputStream());
+                request.write(Base64.getDecoder().decode(state.get(1)));
+                request.writeByte(1);
+                request.writeInt(1);
+                request.writeByte('.');
+                request.writeInt(Integer.MAX_VALUE);
+                request.flush();
+
+                DataInputStream response = new DataInputStream(socket.getInputStream());
+                Assert.assertEquals(2, response.readByte());
+                response.readFully(new byte[response.readInt()]);
+                Assert.assertEquals(3, response.readByte());
+                Assert.assertEquals(1, response.readInt());
+            }
+
+            Assert.assertTrue(client.ping());
+        } finally {
+            client.stop();
+            thread.join();
+        }
+    }
+}
\ No newline at end of file
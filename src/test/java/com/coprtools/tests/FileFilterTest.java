@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.scanner.ExtensionFilter;
+
+public class FileFilterTest extends BaseCommandTest {
+
+    @Test
+    public void testExtensionFilter_withManyExtensions_shouldMatchTheSuffixes() {
+        ExtensionFilter filter = new ExtensionFilter(".java", ".cs", ".tar.gz", "Makefile");
+
+        Assert.assertTrue(filter.matches("Main.java"));
+        Assert.assertTrue(filter.matches("Program.cs"));
+        Assert.assertTrue(filter.matches("archive.tar.gz"));
+        Assert.assertTrue(filter.matches("Makefile"));
+
+        Assert.assertFalse(filter.matches("Main.javax"));
+        Assert.assertFalse(filter.matches("archive.gz"));
+        Assert.assertFalse(filter.matches("cs"));
+        Assert.assertFalse(filter.matches(""));
+    }
+
+    @Test
+    public void testInsert_withIncludePattern_shouldProcessOnlyTheMatchingFiles()
+            throws FileNotFoundException, IOException {
+        String command = "insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs --include firstChild/*";
+        this.executeCommand(command);
+
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, csFile_1_content.startsWith(NOTICE));
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, csFile_2_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, cppFile_1_content.startsWith(NOTICE));
+    }
+
+    @Test
+    public void testInsert_withExcludedDirectory_shouldSkipTheWholeDirectory()
+            throws FileNotFoundException, IOException {
+        String command = "insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cpp --exclude secondChild";
+        this.executeCommand(command);
+
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, cppFile_1_content.startsWith(NOTICE));
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, cppFile_2_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, cppFile_2_2_content.startsWith(NOTICE));
+    }
+}
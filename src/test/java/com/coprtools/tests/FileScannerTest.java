@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.FileSystemLoopException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.scanner.FileScanner;
+import com.coprtools.scanner.ForkJoinScanner;
+import com.coprtools.scanner.ScanFilter;
+import com.coprtools.scanner.ScanListener;
+import com.coprtools.scanner.TreeWalkScanner;
+
+public class FileScannerTest extends BaseCommandTest {
+
+    private static final Path ROOT = Paths.get("./temp/rootDir");
+
+    @Test
+    public void testTreeWalkScanner_withAcceptAllFilter_shouldFindAllFiles() throws IOException {
+        Set<Path> files = scan(new TreeWalkScanner(), ScanFilter.acceptAll());
+
+        Assert.assertEquals(7, files.size());
+        Assert.assertTrue(files.contains(javaFile1.toPath().normalize()));
+        Assert.assertTrue(files.contains(cppFile22.toPath().normalize()));
+    }
+
+    @Test
+    public void testForkJoinScanner_withAcceptAllFilter_shouldFindTheSameFiles() throws IOException {
+        Set<Path> sequential = scan(new TreeWalkScanner(), ScanFilter.acceptAll());
+        Set<Path> parallel = scan(new ForkJoinScanner(4), ScanFilter.acceptAll());
+
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testScanners_withDirectoryFilter_shouldSkipTheSubtree() throws IOException {
+        ScanFilter filter = new ScanFilter() {
+            @Override
+            public boolean acceptDirectory(Path directory, BasicFileAttributes attributes) {
+                return !directory.endsWith("secondChild");
+            }
+
+            @Override
+            public boolean acceptFile(Path file, BasicFileAttributes attributes) {
+                return true;
+            }
+        };
+
+        Set<Path> sequential = scan(new TreeWalkScanner(), filter);
+        Set<Path> parallel = scan(new ForkJoinScanner(2), filter);
+
+        Assert.assertEquals(3, sequential.size());
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertFalse(sequential.contains(new File("./temp/rootDir/secondChild/csFile_2.cs").toPath().normalize()));
+    }
+
+    @Test
+    public void testScanners_withSymbolicLinks_shouldFollowThemAndReportTheCycles() throws IOException {
+        Path secondChild = ROOT.resolve("secondChild");
+        Files.createSymbolicLink(ROOT.resolve("firstChild/linked"), secondChild.toAbsolutePath());
+        Files.createSymbolicLink(secondChild.resolve("loop"), ROOT.toAbsolutePath());
+
+        Map<Path, Class<?>> sequentialErrors = new ConcurrentHashMap<>();
+        Map<Path, Class<?>> parallelErrors = new ConcurrentHashMap<>();
+        Set<Path> sequential = scan(new TreeWalkScanner(), ScanFilter.acceptAll(), sequentialErrors);
+        Set<Path> parallel = scan(new ForkJoinScanner(4), ScanFilter.acceptAll(), parallelErrors);
+
+        Assert.assertEquals(sequential, parallel);
+        Assert.assertTrue(sequential.contains(ROOT.resolve("firstChild/linked/csFile_2.cs").normalize()));
+        Assert.assertEquals(sequentialErrors, parallelErrors);
+        Assert.assertEquals(FileSystemLoopException.class, parallelErrors.get(secondChild.resolve("loop").normalize()));
+    }
+
+    @Test
+    public void testInsert_withPathList_shouldProcessOnlyTheListedFiles() throws IOException {
+        Files.write(new File("./temp/paths.txt").toPath(), Arrays.asList(
+                "firstChild/javaFile_1.java",
+                "firstChild/deleted.java",
+                "secondChild/csFile_2.cs",
+                "../notice.txt",
+                ""));
+
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs --paths ./temp/paths.txt "
+                + "--exclude secondChild");
+
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, csFile_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, csFile_2_content.startsWith(NOTICE));
+    }
+
+    private static Set<Path> scan(FileScanner scanner, ScanFilter filter) throws IOException {
+        return scan(scanner, filter, null);
+    }
+
+    private static Set<Path> scan(FileScanner scanner, ScanFilter filter, Map<Path, Class<?>> errors)
+            throws IOException {
+        Set<Path> files = ConcurrentHashMap.newKeySet();
+        scanner.scan(ROOT, filter, new ScanListener() {
+            @Override
+            public void onFile(Path file, BasicFileAttributes attributes) {
+                files.add(file.normalize());
+            }
+
+            @Override
+            public void onError(Path path, IOException e) {
+                if (errors == null) {
+                    Assert.fail(e.getMessage());
+                }
+                errors.put(path.normalize(), e.getClass());
+            }
+        });
+
+        return files;
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.constants.InserterConstants;
+
+public class IncrementalTest extends BaseCommandTest {
+
+    private static final String COMMAND =
+            "insert -r ./temp/rootDir -n ./temp/notice.txt -e .java --incremental";
+
+    @Test
+    public void testIncremental_withUnchangedFiles_shouldSkipThem() throws FileNotFoundException, IOException {
+        this.executeCommand(COMMAND);
+        Assert.assertTrue(new File("./temp/rootDir", InserterConstants.MANIFEST_FILENAME).isFile());
+
+        // only touched: the content hash keeps the files up to date
+        long lastModified = System.currentTimeMillis() / 1000 * 1000 - 3_600_000;
+        Assert.assertTrue(javaFile1.setLastModified(lastModified));
+        this.executeCommand(COMMAND);
+        Assert.assertEquals(lastModified, javaFile1.lastModified());
+
+        // same size and time: the file is not read at all
+        byte[] content = Files.readAllBytes(javaFile1.toPath());
+        content[0] = '#';
+        Files.write(javaFile1.toPath(), content);
+        Assert.assertTrue(javaFile1.setLastModified(lastModified));
+
+        // changed size: the file is processed again
+        Files.write(javaFile2.toPath(), "class B {}".getBytes());
+
+        this.executeCommand(COMMAND);
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, javaFile_2_content.startsWith(NOTICE));
+    }
+
+    @Test
+    public void testIncremental_withDifferentNotice_shouldProcessTheFilesAgain()
+            throws FileNotFoundException, IOException {
+        this.executeCommand(COMMAND);
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .java --incremental");
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith(NOTICE));
+    }
+
+    @Test
+    public void testIncremental_withPrunedOutputDirectory_shouldWriteTheMissingFilesAgain()
+            throws FileNotFoundException, IOException {
+        File output = new File("./temp/output/firstChild/javaFile_1.java");
+        this.executeCommand(COMMAND + " -o ./temp/output");
+        Assert.assertTrue(output.delete());
+
+        this.executeCommand(COMMAND + " -o ./temp/output");
+
+        Assert.assertTrue(NOT_INSERTED, readFromFile(output).startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.startsWith(NOTICE));
+    }
+}
\ No newline at end of file
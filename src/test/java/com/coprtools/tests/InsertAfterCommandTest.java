@@ -18,6 +18,9 @@ package com.coprtools.tests;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -73,4 +76,33 @@ public class InsertAfterCommandTest extends BaseCommandTest {
         Assert.assertFalse(NOT_INSERTED, cppFile_2_1_content.endsWith(NOTICE));
         Assert.assertFalse(NOT_INSERTED, cppFile_2_2_content.endsWith(NOTICE));
     }
+
+    @Test
+    public void testInsertAfter_runTwice_shouldAppendTheNoticeOnce()
+            throws FileNotFoundException, IOException {
+        String insertAfterCommand = "insert -b -r ./temp/rootDir -n ./temp/notice.txt -e .java -bl 1";
+        this.executeCommand(insertAfterCommand);
+        Files.write(javaFile2.toPath(), "\n".getBytes(StandardCharsets.ISO_8859_1), StandardOpenOption.APPEND);
+        String once = javaFile_1_content;
+
+        this.executeCommand(insertAfterCommand);
+
+        Assert.assertEquals(once, javaFile_1_content);
+        Assert.assertEquals(javaFile_1_content.indexOf(NOTICE), javaFile_1_content.lastIndexOf(NOTICE));
+        Assert.assertEquals(javaFile_2_content.indexOf(NOTICE), javaFile_2_content.lastIndexOf(NOTICE));
+    }
+
+    @Test
+    public void testInsertAfter_withNoticeEndingWithWhiteSpaces_shouldAppendTheNoticeOnce()
+            throws FileNotFoundException, IOException {
+        String notice = "// Footer notice \n";
+        String[] insertAfterCommand = { "insert", "-b", "-r", "./temp/rootDir", "-n", notice, "-e", ".java", "-s" };
+        this.executeCommand(insertAfterCommand);
+        String once = javaFile_1_content;
+
+        this.executeCommand(insertAfterCommand);
+
+        Assert.assertEquals(once, javaFile_1_content);
+        Assert.assertEquals(javaFile_1_content.indexOf(notice.trim()), javaFile_1_content.lastIndexOf(notice.trim()));
+    }
 }
\ No newline at end of file
@@ -77,4 +77,43 @@ public class InsertBeforeCommandTest extends BaseCommandTest {
         Assert.assertFalse(NOT_INSERTED, cppFile_2_1_content.startsWith(NOTICE));
         Assert.assertFalse(NOT_INSERTED, cppFile_2_2_content.startsWith(NOTICE));
     }
+
+    @Test
+    public void insertNoticeTwiceTest() throws FileNotFoundException, IOException {
+        String command = "insert -r ./temp/rootDir -n ./temp/notice.txt -e .java";
+        this.executeCommand(command);
+        this.executeCommand(command);
+
+        // The second run finds the notice and leaves the files untouched
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertEquals(0, javaFile_1_content.lastIndexOf(NOTICE));
+        Assert.assertEquals(0, javaFile_2_content.lastIndexOf(NOTICE));
+    }
+
+    @Test
+    public void insertNoticeLeavesNoTemporaryFilesTest() throws FileNotFoundException, IOException {
+        String command = "insert -r ./temp/rootDir -n ./temp/notice.txt -e .cs .java .cpp";
+        this.executeCommand(command);
+
+        // Only the original files are left after the atomic rewrites
+        Assert.assertEquals(3, javaFile1.getParentFile().list().length);
+        Assert.assertEquals(4, javaFile2.getParentFile().list().length);
+        Assert.assertTrue(NOT_INSERTED, cppFile_2_2_content.startsWith(NOTICE));
+    }
+
+    @Test
+    public void insertNoticeWithFourThreadsTest() throws FileNotFoundException, IOException {
+        String command = "insert -r ./temp/rootDir -n ./temp/notice.txt -e .cs .java -t 4";
+        this.executeCommand(command);
+
+        // The result is the same as the sequential execution
+        Assert.assertTrue(NOT_INSERTED, csFile_1_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, csFile_2_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, javaFile_2_content.startsWith(NOTICE));
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, cppFile_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, cppFile_2_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, cppFile_2_2_content.startsWith(NOTICE));
+    }
 }
\ No newline at end of file
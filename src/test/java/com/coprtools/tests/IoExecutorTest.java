@@ -0,0 +1,78 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.util.IoExecutor;
+
+public class IoExecutorTest extends BaseCommandTest {
+
+    @Test
+    public void testExecute_withManyOperations_shouldNotExceedTheOpenFilesLimit() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        try (IoExecutor executor = new IoExecutor(3)) {
+            for (int i = 0; i < 50; i++) {
+                executor.execute(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(2);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    inFlight.decrementAndGet();
+                    completed.incrementAndGet();
+                });
+            }
+            executor.awaitCompletion();
+
+            Assert.assertEquals(50, completed.get());
+        }
+
+        Assert.assertTrue(maxInFlight.get() <= 3);
+    }
+
+    @Test
+    public void testInsert_withVirtualThreads_shouldInsertToAllFiles() throws IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs .cpp --virtual-threads 4");
+
+        Assert.assertTrue(NOT_INSERTED, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, csFile_2_content.startsWith(NOTICE));
+        Assert.assertTrue(NOT_INSERTED, cppFile_2_2_content.startsWith(NOTICE));
+        Assert.assertFalse(engine.isFailed());
+    }
+
+    @Test
+    public void testInsert_withVirtualThreadsAndOutput_shouldCopyTheOtherFiles() throws IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java -o ./temp/output "
+                + "--virtual-threads 2 -t 2");
+
+        Assert.assertTrue(NOT_INSERTED,
+                readFromFile(new File("./temp/output/secondChild/javaFile_2.java")).startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE,
+                readFromFile(new File("./temp/output/firstChild/csFile_1.cs")).startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.startsWith(NOTICE));
+    }
+}
\ No newline at end of file
@@ -48,4 +48,17 @@ public class LogFileTest extends BaseCommandTest{
 
         Assert.assertFalse(logFile.exists());
     }
+
+    @Test
+    public void testLogFile_withManyThreads_shouldContainAllMessages()
+            throws FileNotFoundException, IOException{
+        String command = "insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs .cpp --info -t 4";
+        this.executeCommand(command);
+
+        String fileContent = readFromFile(new File("./temp/rootDir/CopyrightInserter.log"));
+
+        Assert.assertTrue(fileContent, fileContent.contains("javaFile_1.java - DONE"));
+        Assert.assertTrue(fileContent, fileContent.contains("cppFile_22.cpp - DONE"));
+        Assert.assertEquals(fileContent, 7, fileContent.split(" - DONE", -1).length - 1);
+    }
 }
\ No newline at end of file
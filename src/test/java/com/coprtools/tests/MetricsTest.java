@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.metrics.InstrumentedManipulator;
+import com.coprtools.metrics.LatencyHistogram;
+import com.coprtools.metrics.Metrics;
+import com.coprtools.util.SourceManipulator;
+
+public class MetricsTest extends BaseCommandTest {
+
+    @Test
+    public void testHistogram_withKnownValues_shouldFindThePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        Assert.assertEquals(1000, histogram.getCount());
+        Assert.assertEquals(500_000, histogram.getPercentile(50), 500_000 * 0.125);
+        Assert.assertEquals(990_000, histogram.getPercentile(99), 990_000 * 0.125);
+        Assert.assertTrue(histogram.getPercentile(100) >= 1_000_000);
+    }
+
+    @Test
+    public void testInsert_withMetricsFile_shouldExportTheCounters() throws FileNotFoundException, IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java --metrics ./temp/metrics.json");
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs --metrics ./temp/metrics.json");
+
+        String json = new String(Files.readAllBytes(Paths.get("./temp/metrics.json")), StandardCharsets.UTF_8);
+
+        Assert.assertTrue(json, json.contains("\"scanned\":7,\"matched\":4,\"modified\":2,\"skipped\":2,\"failed\":0"));
+        Assert.assertTrue(json, json.contains("\"file\":{\"count\":4,"));
+        Assert.assertTrue(json, json.contains("\"walk\":{\"count\":4,"));
+    }
+
+    @Test
+    public void testRemoveWithScanLimit_withMetricsFile_shouldCountTheStreamedReads()
+            throws FileNotFoundException, IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+        long size = javaFile1.length() + javaFile2.length();
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .java --scan-limit 8k "
+                + "--metrics ./temp/metrics.json");
+
+        String json = new String(Files.readAllBytes(Paths.get("./temp/metrics.json")), StandardCharsets.UTF_8);
+        Matcher bytes = Pattern.compile("\"bytes\":\\{\"read\":(\\d+)").matcher(json);
+        Assert.assertTrue(json, bytes.find());
+        Assert.assertTrue(json, Long.parseLong(bytes.group(1)) >= size);
+        Assert.assertTrue(json, json.contains("\"read\":{\"count\":2,"));
+    }
+
+    @Test
+    public void testInsertWithVirtualThreads_withMetricsFile_shouldIncludeThePendingOperations()
+            throws FileNotFoundException, IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs .cpp --virtual-threads 1 "
+                + "--metrics ./temp/metrics.json");
+
+        String json = new String(Files.readAllBytes(Paths.get("./temp/metrics.json")), StandardCharsets.UTF_8);
+        Matcher elapsed = Pattern.compile("\"elapsedNanos\":(\\d+)").matcher(json);
+        Matcher files = Pattern.compile("\"file\":\\{\"count\":7,\"total\":(\\d+)").matcher(json);
+        Assert.assertTrue(json, elapsed.find() && files.find());
+        // one operation at a time: the run takes at least as long as all files
+        Assert.assertTrue(json, Long.parseLong(elapsed.group(1)) >= Long.parseLong(files.group(1)));
+    }
+
+    @Test
+    public void testStartsWithAndEndsWith_withMultiByteNotice_shouldCountTheReadBytes() throws IOException {
+        String notice = "// \u00A9 ACME \u03A9";
+        int noticeBytes = notice.getBytes(StandardCharsets.UTF_8).length;
+        byte[] content = new byte[1000];
+        Arrays.fill(content, (byte) 'x');
+        Files.write(javaFile1.toPath(), content);
+
+        Metrics metrics = new Metrics();
+        InstrumentedManipulator manipulator = new InstrumentedManipulator(new SourceManipulator() {
+            @Override
+            protected Charset getCharset() {
+                return StandardCharsets.UTF_8;
+            }
+        }, metrics);
+
+        Assert.assertFalse(manipulator.startsWith(javaFile1, notice));
+        Assert.assertEquals(noticeBytes, metrics.getBytesRead());
+
+        // the last bytes are read with a few more for the trailing white spaces
+        Assert.assertFalse(manipulator.endsWith(javaFile1, notice));
+        Assert.assertEquals(noticeBytes + noticeBytes + 64, metrics.getBytesRead());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.matching.AhoCorasickMatcher;
+import com.coprtools.matching.HorspoolMatcher;
+import com.coprtools.matching.Match;
+import com.coprtools.matching.NoticeMatcher;
+
+public class NoticeMatcherTest {
+
+    private static final String TEXT = "package a;\n/* (c) 2016 *ACME* $1 */\nclass A {}\n/* (c) 2016 *ACME* $1 */";
+
+    @Test
+    public void testHorspoolMatcher_withRegexCharacters_shouldMatchLiterally() {
+        NoticeMatcher matcher = new HorspoolMatcher("/* (c) 2016 *ACME* $1 */");
+
+        Match match = matcher.find(TEXT, 0);
+
+        Assert.assertNotNull(match);
+        Assert.assertEquals(TEXT.indexOf("/*"), match.getStart());
+        Assert.assertEquals(TEXT.indexOf("*/") + 2, match.getEnd());
+        Assert.assertEquals(TEXT.lastIndexOf("/*"), matcher.find(TEXT, match.getEnd()).getStart());
+    }
+
+    @Test
+    public void testHorspoolMatcher_withoutOccurrence_shouldReturnNull() {
+        Assert.assertNull(new HorspoolMatcher("(c) 2017").find(TEXT, 0));
+        Assert.assertNull(new HorspoolMatcher("class A").find(TEXT, TEXT.indexOf("class A") + 1));
+        Assert.assertNull(new HorspoolMatcher("").find(TEXT, 0));
+    }
+
+    @Test
+    public void testHorspoolMatcher_withCharactersSharingTheLowByte_shouldMatchExactly() {
+        // U+0141 and 'A' have the same low byte
+        NoticeMatcher matcher = new HorspoolMatcher("\u0141A");
+
+        Assert.assertNull(matcher.find("AAAA", 0));
+        Assert.assertEquals(3, matcher.find("AA\u0141\u0141A", 0).getStart());
+    }
+
+    @Test
+    public void testAhoCorasickMatcher_withSeveralNotices_shouldFindTheLeftmostOne() {
+        NoticeMatcher matcher = new AhoCorasickMatcher("class A", "(c) 2016", "package");
+
+        Match first = matcher.find(TEXT, 0);
+        Match second = matcher.find(TEXT, first.getEnd());
+        Match third = matcher.find(TEXT, second.getEnd());
+
+        Assert.assertEquals(2, first.getNoticeIndex());
+        Assert.assertEquals(0, first.getStart());
+        Assert.assertEquals(1, second.getNoticeIndex());
+        Assert.assertEquals(TEXT.indexOf("(c)"), second.getStart());
+        Assert.assertEquals(0, third.getNoticeIndex());
+        Assert.assertEquals(TEXT.indexOf("class A") + "class A".length(), third.getEnd());
+    }
+
+    @Test
+    public void testAhoCorasickMatcher_withOverlappingNotices_shouldPreferTheEarliestAndLongest() {
+        NoticeMatcher matcher = new AhoCorasickMatcher("bcd", "abcdef", "abc", "cd");
+
+        Match match = matcher.find("xxabcdefxx", 0);
+        Assert.assertEquals(1, match.getNoticeIndex());
+        Assert.assertEquals(2, match.getStart());
+
+        match = matcher.find("xxabcdxx", 0);
+        Assert.assertEquals(2, match.getNoticeIndex());
+        Assert.assertEquals(2, match.getStart());
+
+        match = matcher.find("xxabcdxx", 3);
+        Assert.assertEquals(0, match.getNoticeIndex());
+
+        Assert.assertNull(matcher.find("xxabxcxx", 0));
+    }
+}
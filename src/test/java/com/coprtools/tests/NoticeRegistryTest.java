@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.notice.Notice;
+import com.coprtools.notice.NoticeRegistry;
+import com.coprtools.util.SourceManipulator;
+
+public class NoticeRegistryTest extends BaseCommandTest {
+
+    private static final File NOTICE_FILE = new File("./temp/notice.txt");
+
+    @Test
+    public void testLoad_withTheSameContent_shouldReuseTheNotice() throws IOException {
+        NoticeRegistry registry = new NoticeRegistry();
+        SourceManipulator manipulator = new SourceManipulator(registry);
+
+        Notice notice = registry.load(NOTICE_FILE, manipulator);
+
+        Assert.assertEquals(NOTICE, notice.getText());
+        Assert.assertSame(notice, registry.load(NOTICE_FILE, manipulator));
+        Assert.assertSame(notice, registry.register(new String(NOTICE)));
+        Assert.assertSame(registry.getMatcher(NOTICE), registry.getMatcher(notice.getText()));
+
+        this.writeToFile(NOTICE_FILE, "// changed");
+        Assert.assertEquals(NOTICE + "// changed", registry.load(NOTICE_FILE, manipulator).getText());
+    }
+
+    @Test
+    public void testLoad_withANewFile_shouldReadTheFileOnlyOnce() throws IOException {
+        NoticeRegistry registry = new NoticeRegistry();
+        SourceManipulator manipulator = new SourceManipulator(registry) {
+            @Override
+            public String readFromFile(File file) throws IOException {
+                throw new IOException("The notice is already read: " + file);
+            }
+        };
+
+        Assert.assertEquals(NOTICE, registry.load(NOTICE_FILE, manipulator).getText());
+    }
+
+    @Test
+    public void testRegister_overTheCapacity_shouldEvictTheLeastRecentlyUsed() {
+        NoticeRegistry registry = new NoticeRegistry(2);
+        Notice first = registry.register("first");
+        Notice second = registry.register("second");
+        registry.register("first");
+        registry.register("third");
+
+        Assert.assertSame(first, registry.register("first"));
+        Assert.assertNotSame(second, registry.register("second"));
+    }
+}
\ No newline at end of file
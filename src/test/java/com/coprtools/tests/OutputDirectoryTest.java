@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class OutputDirectoryTest extends BaseCommandTest {
+
+    private static final String OUTPUT = "./temp/output";
+
+    @Test
+    public void testInsert_withOutputDirectory_shouldKeepTheRootUnchanged()
+            throws FileNotFoundException, IOException {
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java -o " + OUTPUT
+                + " --exclude secondChild");
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.startsWith(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith(NOTICE));
+
+        Assert.assertTrue(NOT_INSERTED, output("firstChild/javaFile_1.java").startsWith(NOTICE));
+        Assert.assertEquals(javaFile_2_content, output("secondChild/javaFile_2.java"));
+        Assert.assertEquals(csFile_1_content, output("firstChild/csFile_1.cs"));
+        Assert.assertEquals(cppFile_2_2_content, output("secondChild/cppFile_22.cpp"));
+    }
+
+    @Test
+    public void testInsert_withHardLinks_shouldLinkOnlyTheUnchangedFiles()
+            throws FileNotFoundException, IOException {
+        File changedFile = new File(OUTPUT, "firstChild/javaFile_1.java");
+        File unchangedFile = new File(OUTPUT, "firstChild/csFile_1.cs");
+
+        this.executeCommand("insert -b -r ./temp/rootDir -n ./temp/notice.txt -e .java -o " + OUTPUT
+                + " --hard-link");
+        Assert.assertTrue(Files.isSameFile(csFile1.toPath(), unchangedFile.toPath()));
+        Assert.assertFalse(Files.isSameFile(javaFile1.toPath(), changedFile.toPath()));
+
+        // without the option the links are replaced with copies
+        this.executeCommand("insert -b -r ./temp/rootDir -n ./temp/notice.txt -e .java -o " + OUTPUT);
+        Assert.assertFalse(Files.isSameFile(csFile1.toPath(), unchangedFile.toPath()));
+        Assert.assertEquals(csFile_1_content, readFromFile(unchangedFile));
+
+        Assert.assertFalse(javaFile_1_content.endsWith(NOTICE));
+        Assert.assertTrue(readFromFile(changedFile).endsWith(NOTICE));
+        Assert.assertEquals(readFromFile(changedFile).indexOf(NOTICE), readFromFile(changedFile).lastIndexOf(NOTICE));
+    }
+
+    @Test
+    public void testInsert_withHardLinksAndAlreadyInsertedNotice_shouldLinkTheFile()
+            throws FileNotFoundException, IOException {
+        File compliantFile = new File(OUTPUT, "secondChild/javaFile_2.java");
+        Files.write(javaFile2.toPath(), (NOTICE + "\n" + readFromFile(javaFile2)).getBytes());
+
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java -o " + OUTPUT
+                + " --hard-link");
+
+        Assert.assertTrue(Files.isSameFile(javaFile2.toPath(), compliantFile.toPath()));
+        File changedFile = new File(OUTPUT, "firstChild/javaFile_1.java");
+        Assert.assertFalse(Files.isSameFile(javaFile1.toPath(), changedFile.toPath()));
+    }
+
+    private String output(String path) throws FileNotFoundException, IOException {
+        return this.readFromFile(new File(OUTPUT, path));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PreserveFormatTest extends BaseCommandTest {
+
+    private static final byte[] WINDOWS_CONTENT =
+            "line 1\r\nline 2\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+    private static final byte[] BINARY_CONTENT = { 'a', (byte) 0xFF, (byte) 0xC3, '\n', (byte) 0x80, ' ', '\n' };
+
+    private static final byte[] TRIMMED_CONTENT = { 'a', (byte) 0xFF, '\r', '\n', (byte) 0xC3, (byte) 0x80 };
+
+    @Test
+    public void testInsertWithPreserve_withWindowsLineSeparators_shouldKeepTheOriginalBytes()
+            throws FileNotFoundException, IOException {
+        Files.write(javaFile1.toPath(), WINDOWS_CONTENT);
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java -p");
+
+        Assert.assertArrayEquals(expectedWithNotice(WINDOWS_CONTENT), Files.readAllBytes(javaFile1.toPath()));
+    }
+
+    @Test
+    public void testInsertWithPreserve_withInvalidUtf8Bytes_shouldKeepTheOriginalBytes()
+            throws FileNotFoundException, IOException {
+        Files.write(javaFile1.toPath(), BINARY_CONTENT);
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java --preserve");
+
+        Assert.assertArrayEquals(expectedWithNotice(BINARY_CONTENT), Files.readAllBytes(javaFile1.toPath()));
+    }
+
+    @Test
+    public void testInsertAndRemoveWithMapThreshold_withMappedFiles_shouldKeepTheOriginalBytes()
+            throws FileNotFoundException, IOException {
+        Files.write(javaFile1.toPath(), TRIMMED_CONTENT);
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java --map-threshold 1");
+
+        Assert.assertArrayEquals(expectedWithNotice(TRIMMED_CONTENT), Files.readAllBytes(javaFile1.toPath()));
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .java --map-threshold 1");
+
+        // the line separator inserted after the notice is kept as any other byte
+        byte[] separator = System.getProperty("line.separator").getBytes(StandardCharsets.ISO_8859_1);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write(separator);
+        expected.write(TRIMMED_CONTENT);
+        Assert.assertArrayEquals(expected.toByteArray(), Files.readAllBytes(javaFile1.toPath()));
+    }
+
+    @Test
+    public void testReplaceAndRemoveWithPreserve_withFinalNewLine_shouldKeepTheFinalNewLine()
+            throws FileNotFoundException, IOException {
+        String newNotice = "// New notice";
+        this.writeToFile(new File("./temp/new-notice.txt"), newNotice);
+        Files.write(javaFile1.toPath(), (NOTICE + "\nclass A {}\n").getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(csFile1.toPath(), ("class A {}\n" + NOTICE + "\n").getBytes(StandardCharsets.ISO_8859_1));
+
+        this.executeCommand("replace -r ./temp/rootDir -n ./temp/notice.txt -nn ./temp/new-notice.txt -e .java -p");
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .cs --stream-window 1k -p");
+
+        Assert.assertArrayEquals((newNotice + "\nclass A {}\n").getBytes(StandardCharsets.ISO_8859_1),
+                Files.readAllBytes(javaFile1.toPath()));
+        Assert.assertArrayEquals("class A {}\n\n".getBytes(StandardCharsets.ISO_8859_1),
+                Files.readAllBytes(csFile1.toPath()));
+    }
+
+    @Test
+    public void testInsertAndReplaceWithPreserve_withNonAsciiStrings_shouldWriteThemInTheSourceCharset()
+            throws FileNotFoundException, IOException {
+        String notice = "//Copyright\u00A9ACME-\u03A9";
+        String newNotice = "//\u00A9\u00A9";
+        Charset charset = Charset.defaultCharset();
+        Files.write(javaFile1.toPath(), WINDOWS_CONTENT);
+
+        this.executeCommand("insert -r ./temp/rootDir -n " + notice + " -e .java -s --preserve");
+
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write((notice + System.getProperty("line.separator")).getBytes(charset));
+        expected.write(WINDOWS_CONTENT);
+        Assert.assertArrayEquals(expected.toByteArray(), Files.readAllBytes(javaFile1.toPath()));
+
+        this.executeCommand("replace -r ./temp/rootDir -n " + notice + " -nn " + newNotice
+                + " -e .java -s --stream-window 1k -p");
+
+        expected.reset();
+        expected.write((newNotice + System.getProperty("line.separator")).getBytes(charset));
+        expected.write(WINDOWS_CONTENT);
+        Assert.assertArrayEquals(expected.toByteArray(), Files.readAllBytes(javaFile1.toPath()));
+    }
+
+    private static byte[] expectedWithNotice(byte[] content) throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        expected.write((NOTICE + System.getProperty("line.separator")).getBytes(StandardCharsets.ISO_8859_1));
+        expected.write(content);
+        return expected.toByteArray();
+    }
+}
\ No newline at end of file
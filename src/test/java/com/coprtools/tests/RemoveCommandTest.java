@@ -16,12 +16,17 @@
 
 package com.coprtools.tests;
 
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.coprtools.constants.InserterConstants;
+
 public class RemoveCommandTest extends BaseCommandTest {
 
     private static final String SHOULD_START_WITH_NOTICE = "The file should start with notice";
@@ -62,4 +67,77 @@ public class RemoveCommandTest extends BaseCommandTest {
         Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith("\n\n"));
         Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.startsWith("\n\n"));
     }
+
+    @Test
+    public void testRemoveNotice_withRegexCharactersInTheNotice_shouldRemoveItLiterally()
+            throws FileNotFoundException, IOException {
+        String notice = "/* (c) 2016 *ACME* $1 */";
+        File noticeFile = new File("./temp/regex-notice.txt");
+        this.writeToFile(noticeFile, notice);
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/regex-notice.txt -e .java");
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/regex-notice.txt -e .java");
+
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.contains(notice));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_2_content.contains(notice));
+        Assert.assertTrue(javaFile_1_content.startsWith("This is sample content"));
+    }
+
+    @Test
+    public void testRemoveNotice_withSeveralNotices_shouldRemoveAllOfThemInOneRun()
+            throws FileNotFoundException, IOException {
+        String legacyNotice = "// Legacy notice";
+        File legacyNoticeFile = new File("./temp/legacy-notice.txt");
+        this.writeToFile(legacyNoticeFile, legacyNotice);
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/legacy-notice.txt -e .java .cs");
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt ./temp/legacy-notice.txt -e .java .cs");
+
+        Assert.assertTrue(javaFile_1_content.startsWith("This is sample content"));
+        Assert.assertTrue(javaFile_2_content.startsWith("This is sample content"));
+        Assert.assertTrue(csFile_1_content.startsWith("This is sample content"));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.contains(NOTICE));
+        Assert.assertFalse(SHOULD_NOT_START_WITH_NOTICE, javaFile_1_content.contains(legacyNotice));
+    }
+
+    @Test
+    public void testRemoveWithScanLimits_withNoticesOutsideTheRegions_shouldSkipThem()
+            throws FileNotFoundException, IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            body.append("int field").append(i).append(" = ").append(i).append(";\n");
+        }
+        byte[] middle = (body + NOTICE + "\n" + body).getBytes(StandardCharsets.ISO_8859_1);
+        Files.write(javaFile1.toPath(), (NOTICE + "\n" + body).getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(javaFile2.toPath(), middle);
+        Files.write(csFile1.toPath(), (body + NOTICE).getBytes(StandardCharsets.ISO_8859_1));
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .java .cs --scan-limit 1k --scan-tail 1k");
+
+        Assert.assertEquals(body.toString().trim(),
+                new String(Files.readAllBytes(javaFile1.toPath()), StandardCharsets.ISO_8859_1));
+        Assert.assertArrayEquals(middle, Files.readAllBytes(javaFile2.toPath()));
+        Assert.assertEquals(body.toString().trim(),
+                new String(Files.readAllBytes(csFile1.toPath()), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testRemoveWithScanLimits_shouldWriteTheSameBytesAsInMemory()
+            throws FileNotFoundException, IOException {
+        String separator = InserterConstants.LINE_SEPARATOR;
+        byte[] head = (separator + NOTICE + separator + "class A {}" + separator).getBytes(StandardCharsets.ISO_8859_1);
+        byte[] tail = ("  class A {}" + separator + NOTICE + separator).getBytes(StandardCharsets.ISO_8859_1);
+        Files.write(javaFile1.toPath(), head);
+        Files.write(javaFile2.toPath(), tail);
+        Files.write(csFile1.toPath(), head);
+        Files.write(csFile2.toPath(), tail);
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/notice.txt -e .cs --scan-limit 1k --scan-tail 1k");
+
+        Assert.assertEquals("class A {}", javaFile_1_content);
+        Assert.assertArrayEquals(Files.readAllBytes(javaFile1.toPath()), Files.readAllBytes(csFile1.toPath()));
+        Assert.assertArrayEquals(Files.readAllBytes(javaFile2.toPath()), Files.readAllBytes(csFile2.toPath()));
+    }
 }
\ No newline at end of file
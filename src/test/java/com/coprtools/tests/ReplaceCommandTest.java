@@ -19,10 +19,14 @@ package com.coprtools.tests;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.coprtools.constants.InserterConstants;
+
 public class ReplaceCommandTest extends BaseCommandTest {
 
     private static final String NEW_NOTICE = "//This is a new notice";
@@ -55,4 +59,64 @@ public class ReplaceCommandTest extends BaseCommandTest {
         Assert.assertFalse(SHOOLD_NOT_START_WITH_NEW_NOTICE, cppFile_2_1_content.startsWith(NEW_NOTICE));
         Assert.assertFalse(SHOOLD_NOT_START_WITH_NEW_NOTICE, cppFile_2_2_content.startsWith(NEW_NOTICE));
     }
+
+    @Test
+    public void testReplace_withDollarSignInTheNewNotice_shouldInsertItLiterally()
+            throws FileNotFoundException, IOException {
+        String newNoticeText = "// Copyright $YEAR \\ ACME";
+        File newNotice = new File("./temp/new-notice.txt");
+        this.writeToFile(newNotice, newNoticeText);
+        this.executeCommand("insert -r ./temp/rootDir -n ./temp/notice.txt -e .java");
+        this.executeCommand("replace -r ./temp/rootDir -n ./temp/notice.txt -nn ./temp/new-notice.txt -e .java");
+
+        Assert.assertTrue(SHOOLD_START_WITH_NEW_NOTICE, javaFile_1_content.startsWith(newNoticeText));
+        Assert.assertTrue(SHOOLD_START_WITH_NEW_NOTICE, javaFile_2_content.startsWith(newNoticeText));
+    }
+
+    @Test
+    public void testReplaceWithStreamWindow_withNoticesAcrossTheWindows_shouldSpliceTheFirstOccurrence()
+            throws FileNotFoundException, IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            body.append("int field").append(i).append(" = ").append(i).append(";\r\n");
+        }
+        String first = body.substring(0, 37);
+        String second = body.toString();
+        this.writeToFile(new File("./temp/new-notice.txt"), NEW_NOTICE);
+        Files.write(javaFile1.toPath(), (" \r\n" + first + NOTICE + second + NOTICE + "\n\n")
+                .getBytes(StandardCharsets.ISO_8859_1));
+        Files.write(javaFile2.toPath(), (NOTICE + "\r\n\r\n" + second).getBytes(StandardCharsets.ISO_8859_1));
+
+        this.executeCommand("replace -r ./temp/rootDir -n ./temp/notice.txt -nn ./temp/new-notice.txt -e .java "
+                + "--stream-window 1");
+
+        Assert.assertEquals(first + NEW_NOTICE + second + NOTICE,
+                new String(Files.readAllBytes(javaFile1.toPath()), StandardCharsets.ISO_8859_1));
+        Assert.assertEquals(NEW_NOTICE + "\r\n\r\n" + second.trim(),
+                new String(Files.readAllBytes(javaFile2.toPath()), StandardCharsets.ISO_8859_1));
+    }
+
+    @Test
+    public void testReplaceAndRemoveWithStreamWindow_shouldWriteTheSameBytesAsInMemory()
+            throws FileNotFoundException, IOException {
+        String separator = InserterConstants.LINE_SEPARATOR;
+        byte[] content = (separator + "  " + NOTICE + separator + separator + "class A {}" + separator + "  "
+                + separator).getBytes(StandardCharsets.ISO_8859_1);
+        this.writeToFile(new File("./temp/new-notice.txt"), NEW_NOTICE);
+        Files.write(javaFile1.toPath(), content);
+        Files.write(csFile1.toPath(), content);
+
+        this.executeCommand("replace -r ./temp/rootDir -n ./temp/notice.txt -nn ./temp/new-notice.txt -e .java");
+        this.executeCommand("replace -r ./temp/rootDir -n ./temp/notice.txt -nn ./temp/new-notice.txt -e .cs "
+                + "--stream-window 1");
+
+        Assert.assertTrue(SHOOLD_START_WITH_NEW_NOTICE, javaFile_1_content.startsWith(NEW_NOTICE));
+        Assert.assertArrayEquals(Files.readAllBytes(javaFile1.toPath()), Files.readAllBytes(csFile1.toPath()));
+
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/new-notice.txt -e .java");
+        this.executeCommand("remove -r ./temp/rootDir -n ./temp/new-notice.txt -e .cs --stream-window 1");
+
+        Assert.assertEquals("class A {}", javaFile_1_content);
+        Assert.assertArrayEquals(Files.readAllBytes(javaFile1.toPath()), Files.readAllBytes(csFile1.toPath()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2016 Dimcho Nedev
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.coprtools.tests;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.coprtools.commands.CheckCommand;
+import com.coprtools.commands.CommandFactory;
+import com.coprtools.commands.CommandType;
+import com.coprtools.exceptions.InvalidCommandException;
+import com.coprtools.fixtures.TreeGenerator;
+import com.coprtools.scanner.ForkJoinScanner;
+import com.coprtools.util.SourceManipulator;
+
+/**
+ * Runs the commands over a generated tree. The size of the tree can be raised
+ * locally with <code>-Dcoprtools.tree.files=1000000</code>.
+ */
+public class ThroughputTest extends BaseCommandTest {
+
+    private static final Path TREE = Paths.get("./temp/tree");
+
+    private static final String[] EXTENSIONS = { ".java", ".cs" };
+
+    @Test
+    public void testCheck_withGeneratedTree_shouldCountTheGeneratedNotices()
+            throws IOException, InvalidCommandException {
+        TreeGenerator.Statistics statistics = new TreeGenerator(42)
+                .files(Integer.getInteger("coprtools.tree.files", 2000))
+                .depth(4)
+                .sizes(128, 32 * 1024)
+                .headerRatio(0.3)
+                .generate(TREE, NOTICE);
+
+        CheckCommand command = (CheckCommand) new CommandFactory().create(
+                CommandType.CHECK_BEFORE, NOTICE, EXTENSIONS, new SourceManipulator(), null);
+
+        command.executeRecursively(TREE.toFile(), new ForkJoinScanner(4));
+
+        Assert.assertEquals(statistics.getFilesWithNotice(EXTENSIONS), command.getCompliantCount());
+        Assert.assertEquals(statistics.getFiles(EXTENSIONS) - statistics.getFilesWithNotice(EXTENSIONS),
+                command.getNonCompliantCount());
+    }
+
+    @Test
+    public void testGenerator_withTheSameSeed_shouldCreateTheSameTree() throws IOException {
+        Path firstRoot = TREE.resolve("first");
+        Path secondRoot = TREE.resolve("second");
+        TreeGenerator.Statistics first = new TreeGenerator(7).files(300).generate(firstRoot, NOTICE);
+        new TreeGenerator(7).files(300).generate(secondRoot, NOTICE);
+
+        List<Path> firstFiles = listFiles(firstRoot);
+        Assert.assertEquals(300, first.getFiles());
+        Assert.assertEquals(300, firstFiles.size());
+        Assert.assertEquals(firstFiles, listFiles(secondRoot));
+        for (Path file : firstFiles) {
+            Assert.assertArrayEquals(file.toString(), Files.readAllBytes(firstRoot.resolve(file)),
+                    Files.readAllBytes(secondRoot.resolve(file)));
+        }
+    }
+
+    /**
+     * @return the sorted paths of the files relative to the root
+     */
+    private static List<Path> listFiles(Path root) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            return files.filter(Files::isRegularFile)
+                    .map(root::relativize)
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
\ No newline at end of file